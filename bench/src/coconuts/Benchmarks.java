@@ -0,0 +1,20 @@
+package coconuts;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs every benchmark in this module with the GC profiler, which adds gc.alloc.rate.norm
+//   (bytes allocated per operation) next to the ns/op score
+// usage: Benchmarks [regex of benchmarks to include]
+public class Benchmarks {
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "coconuts\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
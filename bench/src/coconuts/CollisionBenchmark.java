@@ -0,0 +1,54 @@
+package coconuts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of a single IslandObject.isTouching() narrow-phase test, averaged over a fixed mix of
+//   touching and non-touching laser/coconut pairs
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int PAIRS = 1024;  // power of two so the index wraps with a mask
+
+    private final IslandObject[] hitters = new IslandObject[PAIRS];
+    private final IslandObject[] targets = new IslandObject[PAIRS];
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < PAIRS; i++) {
+            Coconut c = new Coconut(game, random.nextInt(HeadlessSimulation.ISLAND_WIDTH));
+            c.moveBy(0, random.nextInt(HeadlessSimulation.SKY_HEIGHT));
+            game.registerObject(c);
+            LaserBeam l = new LaserBeam(game, c.getTopY() + random.nextInt(-16, 17),
+                    c.getLeftX() + random.nextInt(-40, 90));
+            game.registerObject(l);
+            hitters[i] = l;
+            targets[i] = c;
+        }
+    }
+
+    @Benchmark
+    public boolean isTouching() {
+        int i = next++ & (PAIRS - 1);
+        return hitters[i].isTouching(targets[i]);
+    }
+}
@@ -0,0 +1,39 @@
+package coconuts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of OhCoconutsGameManager.tryDropCoconut(); with the classic spawn scheduler every tenth call
+//   spawns and registers a coconut, so this is the amortised per-tick spawn cost
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DropBenchmark {
+    private OhCoconutsGameManager game;
+
+    // a fresh game per iteration keeps the object lists from growing without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT, HeadlessSimulation.ISLAND_WIDTH);
+    }
+
+    @Benchmark
+    public OhCoconutsGameManager tryDropCoconut() {
+        game.tryDropCoconut();
+        return game;
+    }
+}
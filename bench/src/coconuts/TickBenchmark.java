@@ -0,0 +1,52 @@
+package coconuts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of one OhCoconutsGameManager.advanceOneTick() (step, collide, compact) with a fixed
+//   population of hovering coconuts and lasers. Run with -prof gc for allocations per tick
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int coconuts;
+
+    @Param({"0", "10", "1000"})
+    int lasers;
+
+    @Param({"grid", "bruteforce"})
+    String broadPhase;
+
+    @Param({"false", "true"})
+    boolean bulkStepping;
+
+    private OhCoconutsGameManager game;
+
+    @Setup
+    public void setUp() {
+        game = SteadyStateGames.hovering(coconuts, lasers, 42);
+        if (broadPhase.equals("bruteforce")) game.setBroadPhase(new BruteForceBroadPhase());
+        game.setBulkStepping(bulkStepping);
+    }
+
+    @Benchmark
+    public OhCoconutsGameManager advanceOneTick() {
+        game.advanceOneTick();
+        return game;
+    }
+}
@@ -13,4 +13,15 @@ public class Beach extends IslandObject {
     public void step() {
         /* do nothing */
     }
+
+    @Override
+    public boolean isGroundObject() {
+        return true;
+    }
+
+    // the beach catches every coconut that reaches it
+    @Override
+    public boolean canHit(IslandObject other) {
+        return other.isCoconut();
+    }
 }
@@ -0,0 +1,80 @@
+package coconuts;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// A scripted player for headless runs. Before every tick the bot looks at the game and may
+//   crawl the crab and fire, through the same calls a human's key presses end up in. Bots get
+//   their own random generator, so a bot game is as reproducible as the game's seed
+public interface BotStrategy {
+    int CRAWL_STEP = 10;    // same step as an arrow key press
+
+    /** Plays one tick's worth of input; called before each tick while the crab is alive */
+    void play(OhCoconutsGameManager game, SplittableRandom random);
+
+    /** Mashes keys: a crawl either way now and then, and the odd shot */
+    static BotStrategy random() {
+        return (game, random) -> {
+            int roll = random.nextInt(100);
+            if (roll < 10) game.crawlCrab(-CRAWL_STEP);
+            else if (roll < 20) game.crawlCrab(CRAWL_STEP);
+            if (random.nextInt(100) < 10) game.fireLaserFromCrab();
+        };
+    }
+
+    /** Stands still and fires every tick */
+    static BotStrategy alwaysFire() {
+        return (game, random) -> game.fireLaserFromCrab();
+    }
+
+    /**
+     * Shoots down the lowest coconut that would land on the crab where it stands, lining up on
+     * it and firing at most every few ticks so it doesn't flood the sky with lasers; coconuts
+     * that would miss the crab are left to fall. Lasers leave from the crab's left edge, not
+     * its middle, so that is what gets lined up with the coconut
+     */
+    static BotStrategy trackNearest() {
+        return new BotStrategy() {
+            private static final int FIRE_EVERY_TICKS = 4;
+            // aiming this far inside the coconut's right edge still hits it, while the crab's
+            //   body, which reaches right from the laser, stays clear of it if the shot misses
+            private static final int AIM_INSIDE_RIGHT_EDGE = 11;
+
+            @Override
+            public void play(OhCoconutsGameManager game, SplittableRandom random) {
+                Crab crab = game.getCrab();
+                IslandObject target = null;
+                List<IslandObject> coconuts = game.coconuts();
+                for (int i = 0, n = coconuts.size(); i < n; i++) {
+                    IslandObject c = coconuts.get(i);
+                    if (c.retiring || !wouldLandOn(crab, c)) continue;
+                    if (target == null || c.getTopY() > target.getTopY()) target = c;
+                }
+                if (target == null) return;
+                // the middle of a laser fired now
+                int aim = crab.getLeftX() + LaserBeam.WIDTH / 2;
+                boolean linedUp = aim >= target.getLeftX() && aim <= target.getRightX();
+                if (linedUp && game.getTick() % FIRE_EVERY_TICKS == 0) game.fireLaserFromCrab();
+                int dx = target.getRightX() - AIM_INSIDE_RIGHT_EDGE - aim;
+                if (dx > CRAWL_STEP / 2) game.crawlCrab(CRAWL_STEP);
+                else if (dx < -CRAWL_STEP / 2) game.crawlCrab(-CRAWL_STEP);
+            }
+
+            // the x half of IslandObject.isTouching
+            private boolean wouldLandOn(Crab crab, IslandObject coconut) {
+                return (coconut.getCenterX() >= crab.getLeftX() && coconut.getCenterX() <= crab.getRightX())
+                        || (crab.getCenterX() >= coconut.getLeftX() && crab.getCenterX() <= coconut.getRightX());
+            }
+        };
+    }
+
+    // random, always-fire or track-nearest
+    static BotStrategy named(String name) {
+        return switch (name) {
+            case "random" -> random();
+            case "always-fire" -> alwaysFire();
+            case "track-nearest" -> trackNearest();
+            default -> throw new IllegalArgumentException("unknown bot strategy: " + name);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package coconuts;
+
+import java.util.Collection;
+import java.util.List;
+
+// Narrows down which hittable objects could possibly touch a given island object so that
+//   isTouching only runs on nearby pairs. Candidates may come back in any order; the game
+//   sorts the ones that actually touch by id so hit events keep the brute-force order
+public interface BroadPhase {
+    /**
+     * Rebuilds the index from the current hittable objects; called once per tick after
+     * every object has stepped
+     */
+    void rebuild(Collection<? extends HittableIslandObject> hittables);
+
+    /**
+     * Appends to out every hittable object that might be touching obj, each once
+     */
+    void candidatesFor(IslandObject obj, List<HittableIslandObject> out);
+}
@@ -0,0 +1,23 @@
+package coconuts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Reference broad-phase: every hittable object is a candidate for every island object
+public class BruteForceBroadPhase implements BroadPhase {
+    private List<? extends HittableIslandObject> hittables = List.of();
+
+    @Override
+    public void rebuild(Collection<? extends HittableIslandObject> hittables) {
+        this.hittables = hittables instanceof List<? extends HittableIslandObject> list ? list : new ArrayList<>(hittables);
+    }
+
+    // index loop: addAll would copy through toArray() on every call
+    @Override
+    public void candidatesFor(IslandObject obj, List<HittableIslandObject> out) {
+        for (int i = 0, n = hittables.size(); i < n; i++) {
+            out.add(hittables.get(i));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package coconuts;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// JavaFX render sink that draws every island object onto one Canvas with drawImage, using the
+//   pre-scaled frames of the SpriteAssets atlas. The scene graph holds a single node however many
+//   objects there are, so CSS, layout and picking cost stay flat. The canvas is repainted in
+//   flush(), and only on frames where something was added, moved or removed (and, at startup,
+//   once the sprite pictures have finished loading)
+public class CanvasRenderSink implements RenderSink {
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private SpriteAssets assets;
+    // objects with a sprite, in the order they were added (later ones are drawn on top)
+    private final Set<IslandObject> drawn = new LinkedHashSet<>();
+    private double alpha = 1;
+    private boolean changed = true;
+
+    public CanvasRenderSink(Pane gamePane) {
+        canvas = new Canvas(gamePane.getPrefWidth(), gamePane.getPrefHeight());
+        canvas.setMouseTransparent(true);
+        graphics = canvas.getGraphicsContext2D();
+        // behind everything else in the pane (scoreboard, overlays)
+        gamePane.getChildren().add(0, canvas);
+    }
+
+    @Override
+    public void added(IslandObject object) {
+        if (object.getSprite() == null) return;
+        drawn.add(object);
+        changed = true;
+    }
+
+    @Override
+    public void moved(IslandObject object) {
+        changed = true;
+    }
+
+    // all objects are drawn with the alpha of the frame's render pass
+    @Override
+    public void moved(IslandObject object, double alpha) {
+        this.alpha = alpha;
+        changed = true;
+    }
+
+    @Override
+    public void removed(IslandObject object) {
+        if (drawn.remove(object)) changed = true;
+    }
+
+    @Override
+    public void flush() {
+        if (!changed) return;
+        if (assets == null) {
+            assets = SpriteAssets.getIfLoaded();
+            if (assets == null) return;     // still loading; paint on a later frame
+        }
+        changed = false;
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (IslandObject object : drawn) {
+            SpriteAssets.Frame frame = assets.frame(object.getSprite(), object.width);
+            graphics.drawImage(frame.image, frame.getSourceX(), frame.getSourceY(), frame.width, frame.height,
+                    object.getRenderX(alpha), object.getRenderY(alpha), frame.width, frame.height);
+        }
+    }
+}
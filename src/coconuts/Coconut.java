@@ -1,20 +1,26 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-
 // Represents the falling object that can kill crabs. If hit by a laser, the coconut disappears
-// This is a domain class; other than Image, do not introduce JavaFX or other GUI components here
+// This is a domain class; do not introduce JavaFX or other GUI components here
 public class Coconut extends HittableIslandObject {
-    private static final int WIDTH = 50;
-    private static final Image coconutImage = new Image("file:images/coco-1.png");
+    static final int WIDTH = 50;
+    private static final int SPEED = 5;
 
     public Coconut(OhCoconutsGameManager game, int x) {
-        super(game, x, 0, WIDTH, coconutImage);
+        super(game, x, 0, WIDTH, Sprite.COCONUT);
+        setVelocityY(SPEED);
+    }
+
+    // pooled coconuts start falling again from the top of the sky
+    void reuse(int x) {
+        reuseAt(x, 0);
+        setVelocityY(SPEED);
     }
 
+    // EntityStore.stepBulk mirrors this for coconuts
     @Override
     public void step() {
-        y += 5;
+        moveBy(0, containingGame.distanceThisTick(getVelocityY()));
     }
 
     public boolean isCoconut() { return true; }
@@ -0,0 +1,30 @@
+package coconuts;
+
+// What an island object is as far as collisions go. The game keeps the objects of each group
+//   in their own bucket and only tests groups that can hit each other (see CollisionMatrix)
+public enum CollisionGroup {
+    CRAB(HitEventType.CRAB_HIT),
+    GROUND(HitEventType.BEACH_HIT),
+    LASER(HitEventType.LASER_HIT),
+    COCONUT(null),
+    OTHER(null);
+
+    // the event published when a member of this group hits something
+    private final HitEventType hitType;
+
+    CollisionGroup(HitEventType hitType) {
+        this.hitType = hitType;
+    }
+
+    public HitEventType getHitType() {
+        return hitType;
+    }
+
+    static CollisionGroup of(IslandObject object) {
+        if (object.isCrab()) return CRAB;
+        if (object.isGroundObject()) return GROUND;
+        if (object.isLaser()) return LASER;
+        if (object.isCoconut()) return COCONUT;
+        return OTHER;
+    }
+}
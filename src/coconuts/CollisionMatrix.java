@@ -0,0 +1,60 @@
+package coconuts;
+
+import java.util.EnumMap;
+import java.util.List;
+
+// Which collision groups can hit which. The rules come from the objects themselves: the first
+//   time two groups are both in play, a member of one is asked whether it canHit a member of
+//   the other, and the answer is kept for every later pair from those groups. canHit must
+//   therefore depend only on what kind of object the other one is, never on where it is
+public final class CollisionMatrix {
+    private static final CollisionGroup[] GROUPS = CollisionGroup.values();
+    private static final byte UNKNOWN = 0, NO = 1, YES = 2;
+
+    private final byte[][] rules = new byte[GROUPS.length][GROUPS.length];
+    private final boolean[] hitters = new boolean[GROUPS.length];
+    private final boolean[] targets = new boolean[GROUPS.length];
+
+    /**
+     * Works out the rules for every pair of groups that both have members, and which groups
+     * currently hit or get hit. Called once per tick before the collision pass
+     */
+    void resolve(EnumMap<CollisionGroup, List<IslandObject>> buckets) {
+        for (CollisionGroup hitter : GROUPS) {
+            List<IslandObject> hitterBucket = buckets.get(hitter);
+            boolean hits = false;
+            for (CollisionGroup target : GROUPS) {
+                List<IslandObject> targetBucket = buckets.get(target);
+                if (rules[hitter.ordinal()][target.ordinal()] == UNKNOWN
+                        && !hitterBucket.isEmpty() && !targetBucket.isEmpty()) {
+                    rules[hitter.ordinal()][target.ordinal()] =
+                            hitterBucket.get(0).canHit(targetBucket.get(0)) ? YES : NO;
+                }
+                hits |= canHit(hitter, target) && !targetBucket.isEmpty();
+            }
+            hitters[hitter.ordinal()] = hits && !hitterBucket.isEmpty();
+        }
+        for (CollisionGroup target : GROUPS) {
+            boolean hit = false;
+            for (CollisionGroup hitter : GROUPS) {
+                hit |= hitters[hitter.ordinal()] && canHit(hitter, target);
+            }
+            targets[target.ordinal()] = hit && !buckets.get(target).isEmpty();
+        }
+    }
+
+    /** Whether members of the hitter group have been found to hit members of the target group */
+    public boolean canHit(CollisionGroup hitter, CollisionGroup target) {
+        return rules[hitter.ordinal()][target.ordinal()] == YES;
+    }
+
+    // whether this group has anything it can hit in play
+    boolean isHitter(CollisionGroup group) {
+        return hitters[group.ordinal()];
+    }
+
+    // whether something in play can hit this group
+    boolean isTarget(CollisionGroup group) {
+        return targets[group.ordinal()];
+    }
+}
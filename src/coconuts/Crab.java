@@ -1,16 +1,13 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-
 // Represents the object that shoots down coconuts but can be hit by coconuts. Killing the
 //   crab ends the game
-// This is a domain class; other than Image, do not introduce JavaFX or other GUI components here
+// This is a domain class; do not introduce JavaFX or other GUI components here
 public class Crab extends HittableIslandObject {
-    private static final int WIDTH = 50; // assumption: height and width are the same
-    private static final Image crabImage = new Image("file:images/crab-1.png");
+    static final int WIDTH = 50; // assumption: height and width are the same
 
     public Crab(OhCoconutsGameManager game, int skyHeight, int islandWidth) {
-        super(game, islandWidth / 2, skyHeight, WIDTH, crabImage);
+        super(game, islandWidth / 2, skyHeight, WIDTH, Sprite.CRAB);
     }
 
     @Override
@@ -18,13 +15,19 @@ public class Crab extends HittableIslandObject {
         // do nothing
     }
 
-    // Captures the crab crawling sideways
+    // Captures the crab crawling sideways; the next frame draws it at the new place
     public void crawl(int offset) {
-        x += offset;
-        display();
+        moveBy(offset, 0);
+        settle();
     }
 
     public boolean isCrab() {
         return true;
     }
+
+    // a falling coconut that lands on the crab
+    @Override
+    public boolean canHit(IslandObject other) {
+        return other.isCoconut();
+    }
 }
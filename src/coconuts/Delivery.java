@@ -0,0 +1,11 @@
+package coconuts;
+
+// How an observer attached to the game receives hit events
+public enum Delivery {
+    /** As soon as the event happens, inside the collision loop */
+    SYNC,
+    /** All of a tick's events together, on the simulation thread, once the tick is over */
+    BATCHED,
+    /** All of a tick's events together, once the tick is over, on another executor */
+    ASYNC
+}
@@ -0,0 +1,161 @@
+package coconuts;
+
+import java.util.Arrays;
+
+// Structure-of-arrays storage for the positions of every island object in a game. While an
+//   object is registered its coordinates live here (the object is a thin view onto its slot),
+//   so stepping can run as a tight loop over primitive arrays instead of hopping from object
+//   to object. Slots of retired objects are recycled, so a game with a steady number of
+//   objects stops allocating once the arrays have grown to fit
+public class EntityStore {
+    // kinds the bulk step knows how to move; anything else is stepped through IslandObject.step()
+    public static final byte KIND_OTHER = 0;
+    public static final byte KIND_COCONUT = 1;
+    public static final byte KIND_LASER = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    int[] x = new int[INITIAL_CAPACITY];
+    int[] y = new int[INITIAL_CAPACITY];
+    // positions at the start of the current tick, for render interpolation
+    int[] previousX = new int[INITIAL_CAPACITY];
+    int[] previousY = new int[INITIAL_CAPACITY];
+    int[] velocityY = new int[INITIAL_CAPACITY];
+    // moved since last drawn (see needsRender)
+    boolean[] renderDirty = new boolean[INITIAL_CAPACITY];
+    byte[] kind = new byte[INITIAL_CAPACITY];
+    boolean[] alive = new boolean[INITIAL_CAPACITY];
+    IslandObject[] owner = new IslandObject[INITIAL_CAPACITY];
+
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int highWater = 0;      // slots at or above this index have never been used
+    private int liveCount = 0;
+
+    /**
+     * Moves the object's position into a free slot; from now on the object reads and writes
+     * its coordinates through this store
+     */
+    void attach(IslandObject object) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : highWater++;
+        if (slot == x.length) grow();
+        x[slot] = previousX[slot] = object.x;
+        y[slot] = previousY[slot] = object.y;
+        velocityY[slot] = object.velocityY;
+        kind[slot] = kindOf(object);
+        renderDirty[slot] = true;
+        alive[slot] = true;
+        owner[slot] = object;
+        object.store = this;
+        object.slot = slot;
+        liveCount++;
+    }
+
+    /**
+     * Copies the object's final position back into it and frees its slot for reuse
+     */
+    void detach(IslandObject object) {
+        int slot = object.slot;
+        if (slot < 0 || object.store != this) return;
+        object.x = x[slot];
+        object.y = y[slot];
+        object.slot = -1;
+        object.store = null;
+        alive[slot] = false;
+        owner[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+    }
+
+    // Puts a registered object exactly where a snapshot had it, including where it was at the
+    //   start of the tick, so interpolation and swept collisions carry on unchanged
+    void place(IslandObject object, int x, int y, int previousX, int previousY, int velocityY) {
+        int slot = object.slot;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.previousX[slot] = previousX;
+        this.previousY[slot] = previousY;
+        this.velocityY[slot] = velocityY;
+        renderDirty[slot] = true;
+    }
+
+    /**
+     * Whether the object in this slot has to be redrawn this frame: it moved during the last
+     * tick, so its interpolated position changes from frame to frame, or it was moved or
+     * settled since it was last drawn. Clears the flag once the object is drawn at rest
+     */
+    boolean needsRender(int slot) {
+        if (x[slot] != previousX[slot] || y[slot] != previousY[slot]) {
+            renderDirty[slot] = true;       // draw once more after it stops, at its final position
+            return true;
+        }
+        if (renderDirty[slot]) {
+            renderDirty[slot] = false;
+            return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    // Remembers where everything is before the tick moves it
+    void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, highWater);
+        System.arraycopy(y, 0, previousY, 0, highWater);
+    }
+
+    /**
+     * Steps every live coconut and laser in one pass over the arrays, matching what their
+     * step() methods do. Lasers that leave through the top of the sky are scheduled for
+     * deletion with the owning game
+     */
+    void stepBulk(OhCoconutsGameManager game) {
+        final int[] x = this.x, y = this.y, vy = this.velocityY;
+        final byte[] kind = this.kind;
+        final boolean[] alive = this.alive;
+        for (int i = 0, n = highWater; i < n; i++) {
+            if (!alive[i]) continue;
+            byte k = kind[i];
+            if (k == KIND_OTHER) continue;
+            y[i] += game.distanceThisTick(vy[i]);
+            if (k == KIND_LASER && y[i] < 0) {
+                game.scheduleForDeletion(owner[i]);
+            }
+        }
+    }
+
+    /**
+     * Steps the objects the bulk loop does not know about (crab, beach, ...)
+     */
+    void stepOthers() {
+        for (int i = 0, n = highWater; i < n; i++) {
+            if (alive[i] && kind[i] == KIND_OTHER) owner[i].step();
+        }
+    }
+
+    private static byte kindOf(IslandObject object) {
+        if (object.isCoconut()) return KIND_COCONUT;
+        if (object.isLaser()) return KIND_LASER;
+        return KIND_OTHER;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        renderDirty = Arrays.copyOf(renderDirty, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+    }
+}
@@ -0,0 +1,118 @@
+package coconuts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Delivers hit events to observers either immediately (SYNC) or collected into a per-tick
+//   batch that is handed over when the tick ends (BATCHED on the simulation thread, ASYNC on
+//   an executor). Batching keeps observer work out of the nested collision loop.
+//   Events published by the game come from a pool that is reused after every flush, so a
+//   steady-state tick creates no HitEvent garbage; ASYNC observers get copies
+public class EventBus {
+    private static ExecutorService defaultAsyncExecutor;
+
+    private final List<Observer> syncObservers = new ArrayList<>();
+    private final List<Observer> batchedObservers = new ArrayList<>();
+    private final List<Observer> asyncObservers = new ArrayList<>();
+    private final List<Executor> asyncExecutors = new ArrayList<>();
+    private final List<HitEvent> batch = new ArrayList<>();
+    private final List<HitEvent> pool = new ArrayList<>();
+    private int pooledInUse = 0;
+
+    public void attach(Observer o, Delivery delivery) {
+        if (delivery == Delivery.ASYNC) {
+            attach(o, defaultAsyncExecutor());
+        } else {
+            detach(o);
+            (delivery == Delivery.SYNC ? syncObservers : batchedObservers).add(o);
+        }
+    }
+
+    /**
+     * Attaches an ASYNC observer whose batches run on the given executor (for example
+     * Platform::runLater for observers that touch the GUI). Batches are submitted in order;
+     * a single-threaded executor also runs them in order
+     */
+    public void attach(Observer o, Executor executor) {
+        detach(o);
+        asyncObservers.add(o);
+        asyncExecutors.add(executor);
+    }
+
+    public void detach(Observer o) {
+        syncObservers.remove(o);
+        batchedObservers.remove(o);
+        int index = asyncObservers.indexOf(o);
+        if (index >= 0) {
+            asyncObservers.remove(index);
+            asyncExecutors.remove(index);
+        }
+    }
+
+    public boolean isAttached(Observer o) {
+        return syncObservers.contains(o) || batchedObservers.contains(o) || asyncObservers.contains(o);
+    }
+
+    /**
+     * Publishes a pooled event raised at the given game tick; it stays valid until the next flush
+     */
+    public void publish(int tick, HitEventType type, IslandObject hitter, IslandObject target) {
+        HitEvent event;
+        if (pooledInUse < pool.size()) {
+            event = pool.get(pooledInUse);
+            event.set(tick, type, hitter, target);
+        } else {
+            event = new HitEvent(tick, type, hitter, target);
+            pool.add(event);
+        }
+        pooledInUse++;
+        publish(event);
+    }
+
+    public void publish(HitEvent event) {
+        for (int i = 0, n = syncObservers.size(); i < n; i++) {
+            syncObservers.get(i).update(event);
+        }
+        if (!batchedObservers.isEmpty() || !asyncObservers.isEmpty()) {
+            batch.add(event);
+        }
+    }
+
+    /**
+     * Hands the events collected since the last flush to the BATCHED and ASYNC observers
+     */
+    public void flush() {
+        if (!batch.isEmpty()) {
+            for (int i = 0, n = batchedObservers.size(); i < n; i++) {
+                batchedObservers.get(i).updateAll(batch);
+            }
+            if (!asyncObservers.isEmpty()) {
+                // the batch list and pooled events are reused, so async observers get copies
+                List<HitEvent> events = new ArrayList<>(batch.size());
+                for (HitEvent e : batch) events.add(e.copy());
+                List<HitEvent> readOnly = List.copyOf(events);
+                for (int i = 0; i < asyncObservers.size(); i++) {
+                    Observer o = asyncObservers.get(i);
+                    asyncExecutors.get(i).execute(() -> o.updateAll(readOnly));
+                }
+            }
+            batch.clear();
+        }
+        pooledInUse = 0;
+    }
+
+    // one shared background thread for ASYNC observers that don't name an executor
+    private static synchronized Executor defaultAsyncExecutor() {
+        if (defaultAsyncExecutor == null) {
+            defaultAsyncExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "coconuts-events");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return defaultAsyncExecutor;
+    }
+}
@@ -0,0 +1,182 @@
+package coconuts;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Observer that appends every hit event to a binary journal for offline analysis. The journal
+//   is a directory of fixed-size segment files, each memory-mapped, so writing an event is a
+//   handful of stores into memory. The next segment is created, mapped and pre-faulted on a
+//   background thread while the current one fills up, and a full segment is flushed to disk on
+//   that thread too, so the game thread only ever swaps one mapped buffer for another
+// Opening a journal on a directory that already has segments appends: the new session starts
+//   with the segment after the highest one there. Unused space at the end of a segment is
+//   skipped by the reader, so sessions follow each other in one journal
+// Segment layout: a HEADER_BYTES header (magic, version, record size, segment number) and
+//   then RECORD_BYTES records of eight ints: tick, type ordinal + 1 (0 marks unused space),
+//   hitter id, target id, hitter x, hitter y, target x, target y (ids are -1 for none)
+// Everything written comes from the event itself, which keeps when it happened and where its
+//   objects were, so the journal can be attached with any Delivery
+// Read journals back with JournalReader
+public class EventJournal implements Observer, Closeable {
+    static final int MAGIC = 0x434f4a4e;   // "COJN"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    public static final int RECORD_BYTES = 32;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;   // 32 MB per segment
+    private static final int PAGE_BYTES = 4096;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final ExecutorService mapper;
+    private MappedByteBuffer segment;
+    private Future<MappedByteBuffer> nextSegment;
+    private int segmentNumber;
+    // first failure flushing a full segment on the mapper thread, reported by close()
+    private volatile IOException flushFailure;
+    private int offset = HEADER_BYTES;
+    private long recordsWritten = 0;
+
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public EventJournal(Path directory, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0) throw new IllegalArgumentException("recordsPerSegment must be positive: " + recordsPerSegment);
+        this.directory = Files.createDirectories(directory);
+        this.recordsPerSegment = recordsPerSegment;
+        this.mapper = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "coconuts-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        segmentNumber = highestSegment(this.directory) + 1;
+        segment = mapSegment(segmentNumber);
+        int following = segmentNumber + 1;
+        nextSegment = mapper.submit(() -> mapSegment(following));
+    }
+
+    static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("events-%06d.bin", number));
+    }
+
+    // number of the last segment file in the directory, or -1 if there is none
+    static int highestSegment(Path directory) throws IOException {
+        int highest = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.matches("events-\\d{6,}\\.bin")) {
+                    highest = Math.max(highest, Integer.parseInt(name.substring(7, name.length() - 4)));
+                }
+            }
+        }
+        return highest;
+    }
+
+    private MappedByteBuffer mapSegment(int number) throws IOException {
+        long size = HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES;
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_BYTES);
+            buffer.putInt(12, number);
+            // touch every page now so the game thread doesn't take the page faults
+            for (int i = PAGE_BYTES; i < size; i += PAGE_BYTES) {
+                buffer.put(i, (byte) 0);
+            }
+            return buffer;
+        }
+    }
+
+    @Override
+    public void update(HitEvent event) {
+        if (offset == segment.capacity()) nextSegment();
+        MappedByteBuffer b = segment;
+        int at = offset;
+        b.putInt(at, event.getTick());
+        b.putInt(at + 8, event.getHitterId());
+        b.putInt(at + 12, event.getTargetId());
+        b.putInt(at + 16, event.getHitterX());
+        b.putInt(at + 20, event.getHitterY());
+        b.putInt(at + 24, event.getTargetX());
+        b.putInt(at + 28, event.getTargetY());
+        // type last: a reader treats a record with type 0 as the end of the journal
+        b.putInt(at + 4, event.getType().ordinal() + 1);
+        offset = at + RECORD_BYTES;
+        recordsWritten++;
+    }
+
+    // Swaps in the pre-mapped segment and hands the full one to the mapper thread to flush. The
+    //   spare is normally ready long before it's needed; only if the mapper has fallen a whole
+    //   segment behind does this wait for it
+    private void nextSegment() {
+        MappedByteBuffer full = segment;
+        try {
+            segment = nextSegment.get();
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException(new IOException("could not create journal segment", e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while opening journal segment", e);
+        }
+        segmentNumber++;
+        offset = HEADER_BYTES;
+        int following = segmentNumber + 1;
+        nextSegment = mapper.submit(() -> mapSegment(following));
+        mapper.execute(() -> flush(full));
+    }
+
+    // writes a full segment back to its file; the mapping goes away once the buffer is collected
+    private void flush(MappedByteBuffer full) {
+        try {
+            full.force();
+        } catch (UncheckedIOException e) {
+            if (flushFailure == null) flushFailure = e.getCause();
+        }
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Flushes everything written so far, waiting for segments still being flushed in the
+     * background, and deletes the pre-mapped spare segment, which holds no events
+     */
+    @Override
+    public void close() throws IOException {
+        segment.force();
+        Path spare = segmentPath(directory, segmentNumber + 1);
+        mapper.shutdown();
+        try {
+            nextSegment.get();
+            mapper.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // the spare never got mapped; remove whatever part of it was created
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while closing the journal", e);
+        }
+        nextSegment = null;
+        Files.deleteIfExists(spare);
+        if (flushFailure != null) throw new IOException("could not flush a journal segment", flushFailure);
+    }
+}
@@ -0,0 +1,33 @@
+package coconuts;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+
+// Frames actually shown per second, counted from JavaFX pulses and updated once a second
+public class FpsCounter extends Label {
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final String prefix;
+    private long windowStart = -1;
+    private int frames = 0;
+
+    public FpsCounter(String prefix) {
+        this.prefix = prefix;
+        setMouseTransparent(true);
+        setText(prefix + " -- fps");
+
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (windowStart < 0) windowStart = now;
+                frames++;
+                long elapsed = now - windowStart;
+                if (elapsed >= SECOND_NANOS) {
+                    setText(prefix + " " + Math.round(frames * (double) SECOND_NANOS / elapsed) + " fps");
+                    frames = 0;
+                    windowStart = now;
+                }
+            }
+        }.start();
+    }
+}
@@ -0,0 +1,131 @@
+package coconuts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+// Runs many independent headless games at once. Games are split into shards that step in
+//   parallel on a ForkJoinPool; step(n) advances every game that isn't over by n ticks, so
+//   all games stay in lockstep between calls. Games share nothing, so throughput grows with
+//   the number of cores
+public class GameArena {
+    // shards per worker thread, so a slow shard doesn't leave the other threads idle
+    private static final int SHARDS_PER_THREAD = 4;
+
+    private final HeadlessSimulation[] games;
+    private final GameStats[] stats;
+    private final ForkJoinPool pool;
+    private final List<Callable<Void>> shards = new ArrayList<>();
+    private int ticksPerStep;
+
+    public GameArena(int gameCount) {
+        this(gameCount, HeadlessSimulation::new, ForkJoinPool.commonPool());
+    }
+
+    public GameArena(int gameCount, Supplier<HeadlessSimulation> newGame, ForkJoinPool pool) {
+        this.pool = pool;
+        games = new HeadlessSimulation[gameCount];
+        stats = new GameStats[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            games[i] = newGame.get();
+            stats[i] = new GameStats();
+            games[i].getGame().attach(stats[i]);
+        }
+
+        int shardCount = Math.max(1, Math.min(gameCount, pool.getParallelism() * SHARDS_PER_THREAD));
+        for (int s = 0; s < shardCount; s++) {
+            int from = (int) ((long) gameCount * s / shardCount);
+            int to = (int) ((long) gameCount * (s + 1) / shardCount);
+            shards.add(() -> {
+                runShard(from, to);
+                return null;
+            });
+        }
+    }
+
+    public int size() {
+        return games.length;
+    }
+
+    public HeadlessSimulation getGame(int index) {
+        return games[index];
+    }
+
+    /**
+     * Advances every game that isn't over by up to ticks ticks, in parallel, and returns once
+     * all of them have
+     */
+    public void step(int ticks) {
+        ticksPerStep = ticks;
+        for (var result : pool.invokeAll(shards)) {
+            try {
+                result.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("arena shard failed", e);
+            }
+        }
+    }
+
+    // each game runs its whole batch before the next one starts, which keeps its data in cache
+    private void runShard(int from, int to) {
+        for (int i = from; i < to; i++) {
+            games[i].runUntilDone(ticksPerStep);
+        }
+    }
+
+    public boolean allDone() {
+        for (HeadlessSimulation game : games) {
+            if (!game.getGame().done()) return false;
+        }
+        return true;
+    }
+
+    public int doneCount() {
+        int done = 0;
+        for (HeadlessSimulation game : games) {
+            if (game.getGame().done()) done++;
+        }
+        return done;
+    }
+
+    public long totalTicks() {
+        long ticks = 0;
+        for (HeadlessSimulation game : games) {
+            ticks += game.getTicks();
+        }
+        return ticks;
+    }
+
+    // Sum of every game's counters; call between steps
+    public GameStats totals() {
+        GameStats total = new GameStats();
+        for (GameStats s : stats) {
+            total.add(s);
+        }
+        return total;
+    }
+
+    // usage: GameArena [games] [ticks] [ticksPerStep] [threads]
+    public static void main(String[] args) {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+        int ticksPerStep = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        GameArena arena = new GameArena(gameCount, HeadlessSimulation::new, pool);
+        long startNanos = System.nanoTime();
+        for (int t = 0; t < ticks && !arena.allDone(); t += ticksPerStep) {
+            arena.step(Math.min(ticksPerStep, ticks - t));
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        pool.shutdown();
+
+        long totalTicks = arena.totalTicks();
+        System.out.printf("%d games on %d threads: %d ticks in %.2f s (%.0f ticks/s), %d done%n",
+                gameCount, threads, totalTicks, seconds, totalTicks / seconds, arena.doneCount());
+        System.out.println(arena.totals());
+    }
+}
@@ -0,0 +1,104 @@
+package coconuts;
+
+import java.util.function.LongSupplier;
+
+// The game's clock: monotonic game time in nanoseconds, read from System.nanoTime() (or moved
+//   by hand for headless runs), standing still while stopped, and running timeScale times as
+//   fast as the wall clock (2 plays the game at double speed, 0.5 in slow motion, 0 freezes
+//   it while the clock keeps running). Drivers
+//   (GameLoop, SimulationWorker, HeadlessSimulation) run one tick per 1 / ticksPerSecond of
+//   game time, so the game keeps pace with real time however many frames are dropped
+// TICK events, spawning and the end of the round are counted in ticks, which happen at fixed
+//   points of game time; that keeps games deterministic and replayable at any time scale
+// Thread-safe: a driver's thread can read it while the UI changes the time scale
+// A system clock skips a stall longer than MAX_STALL_NANOS (window dragged, debugger...)
+//   instead of catching it up; a manual clock never skips
+public class GameClock {
+    static final long MAX_STALL_NANOS = 250_000_000L;
+    // how long toRealNanos tells a driver to wait at time scale 0, when game time never comes;
+    //   short enough that a change of scale is picked up promptly
+    static final long FROZEN_WAIT_NANOS = 10_000_000L;
+
+    private final LongSupplier source;
+    private final boolean manual;
+    private final long maxStepNanos;
+    private long manualNanos = 0;
+    private double timeScale = 1;
+    private long gameNanos = 0;
+    private long lastSourceNanos;
+    private boolean running = false;
+
+    private GameClock(LongSupplier source, long maxStepNanos) {
+        this.manual = source == null;
+        this.source = manual ? () -> manualNanos : source;
+        this.maxStepNanos = maxStepNanos;
+    }
+
+    /** A clock driven by System.nanoTime() */
+    public static GameClock system() {
+        return new GameClock(System::nanoTime, MAX_STALL_NANOS);
+    }
+
+    /** A clock that only moves when advance() is called; for headless runs and tests */
+    public static GameClock manual() {
+        return new GameClock(null, Long.MAX_VALUE);
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        lastSourceNanos = source.getAsLong();
+        running = true;
+    }
+
+    // game time stands still until the next start()
+    public synchronized void stop() {
+        update();
+        running = false;
+    }
+
+    public synchronized double getTimeScale() {
+        return timeScale;
+    }
+
+    // takes effect from now on; time already passed keeps the old scale
+    public synchronized void setTimeScale(double timeScale) {
+        if (!(timeScale >= 0) || Double.isInfinite(timeScale)) {
+            throw new IllegalArgumentException("timeScale must not be negative: " + timeScale);
+        }
+        update();
+        this.timeScale = timeScale;
+    }
+
+    /** Moves a manual clock's wall time forward; game time follows at the time scale if running */
+    public synchronized void advance(long realNanos) {
+        if (!manual) {
+            throw new IllegalStateException("only a manual clock can be advanced");
+        }
+        if (realNanos < 0) throw new IllegalArgumentException("time only goes forward: " + realNanos);
+        manualNanos += realNanos;
+    }
+
+    /** Game time so far: scaled nanoseconds spent running since the clock was made */
+    public synchronized long nanos() {
+        update();
+        return gameNanos;
+    }
+
+    // wall time from game time, at the current scale; e.g. how long to wait for the next tick
+    public synchronized long toRealNanos(long gameNanos) {
+        if (timeScale == 0) return FROZEN_WAIT_NANOS;
+        return (long) (gameNanos / timeScale);
+    }
+
+    private void update() {
+        if (!running) return;
+        long now = source.getAsLong();
+        long real = Math.min(now - lastSourceNanos, maxStepNanos);
+        lastSourceNanos = now;
+        gameNanos += (long) (real * timeScale);
+    }
+}
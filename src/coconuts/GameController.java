@@ -1,24 +1,37 @@
 package coconuts;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
 
 // JavaFX Controller class for the game - generally, JavaFX elements (other than Image) should be here
 public class GameController {
 
     /**
-     * Time between calls to step() (ms)
+     * Simulation ticks per second; rendering runs at the display's own rate
      */
-    private static final double MILLISECONDS_PER_STEP = 1000.0 / 30;
-    private Timeline coconutTimeline;
+    private static final int TICKS_PER_SECOND = 120;
+
+    // How sprites get on screen: an ImageView node per object, or everything drawn on one Canvas
+    public enum Renderer { NODES, CANVAS }
+
+    private final Renderer renderer;
+    // when set, the game ticks on a SimulationWorker thread and the FX thread only draws
+    private final boolean simulationThread;
+    private final SpawnScheduler spawner;
+    // swept collision, so fast storm coconuts can't pass through lasers or the crab
+    private final boolean sweptCollision;
+    // game time for whichever driver runs the ticks; survives restarts
+    private final GameClock clock = GameClock.system();
+    private GameLoop gameLoop;
+    private SimulationWorker worker;
+    private RenderStateView stateView;
     private boolean started = false;
-    private int tickCounter = 0;
     private ScoreBoard board;
+    private MetricsOverlay metricsOverlay;
+    private FpsCounter fpsCounter;
 
     @FXML
     private Pane gamePane;
@@ -26,38 +39,53 @@ public class GameController {
     private Pane theBeach;
     private OhCoconutsGameManager theGame;
 
+    public GameController() {
+        this(Renderer.NODES, false, SpawnScheduler.classic(), false, 1);
+    }
+
+    public GameController(Renderer renderer, boolean simulationThread, SpawnScheduler spawner,
+                          boolean sweptCollision, double timeScale) {
+        this.renderer = renderer;
+        this.simulationThread = simulationThread;
+        this.spawner = spawner;
+        this.sweptCollision = sweptCollision;
+        clock.setTimeScale(timeScale);
+    }
+
     @FXML
     public void initialize() {
-        theGame = new OhCoconutsGameManager(
-                (int) (gamePane.getPrefHeight() - theBeach.getPrefHeight()),
-                (int) (gamePane.getPrefWidth()),
-                gamePane
-        );
+        theGame = newGame();
 
-        // Scoreboard as observer
+        // Scoreboard as observer, fed once per tick rather than from inside the collision loop
         board = new ScoreBoard();
-        theGame.attach(board);
+        attachBoard();
         gamePane.getChildren().add(board);
         board.setLayoutX(0);
         board.setLayoutY(0);
         board.prefWidthProperty().bind(gamePane.widthProperty());
 
-        // Build timeline (30 FPS)
-        gamePane.setFocusTraversable(true);
-        coconutTimeline = new Timeline(new KeyFrame(Duration.millis(MILLISECONDS_PER_STEP), e -> {
-            theGame.tryDropCoconut();
-            theGame.advanceOneTick();
+        // tick timings and counts under the scoreboard; M shows and hides it
+        metricsOverlay = new MetricsOverlay(theGame.getMetrics());
+        gamePane.getChildren().add(metricsOverlay);
+        metricsOverlay.setLayoutX(0);
+        metricsOverlay.setLayoutY(32);
 
-            // emit TICK about once per second
-            if (++tickCounter % 30 == 0) {
-                theGame.notifyAllObservers(new HitEvent(HitEventType.TICK, null, null));
-            }
+        // frame rate and render mode, top right under the scoreboard, for comparing renderers
+        fpsCounter = new FpsCounter(renderer.name().toLowerCase());
+        gamePane.getChildren().add(fpsCounter);
+        fpsCounter.setLayoutX(gamePane.getPrefWidth() - 110);
+        fpsCounter.setLayoutY(32);
 
-            if (theGame.done()) {
-                coconutTimeline.pause();
-            }
-        }));
-        coconutTimeline.setCycleCount(Timeline.INDEFINITE);  // <-- important!
+        gamePane.setFocusTraversable(true);
+        if (simulationThread) {
+            // ticks on their own thread; every pulse draws the latest published positions
+            worker = new SimulationWorker(theGame, clock);
+            stateView = new RenderStateView(gamePane, worker, renderer == Renderer.CANVAS);
+            stateView.start();
+        } else {
+            // Fixed-timestep loop, driven by the JavaFX pulse
+            gameLoop = new GameLoop(theGame, clock);
+        }
 
         javafx.application.Platform.runLater(() -> gamePane.requestFocus());
     }
@@ -66,42 +94,77 @@ public class GameController {
     // PRESS: movement + shoot only
     @FXML
     public void onKeyPressed(KeyEvent e) {
-        if (!theGame.done()) {
-            if (e.getCode() == KeyCode.RIGHT) theGame.getCrab().crawl(10);
-            else if (e.getCode() == KeyCode.LEFT) theGame.getCrab().crawl(-10);
-            else if (e.getCode() == KeyCode.UP) theGame.fireLaserFromCrab();
+        // queued for the next tick rather than applied here, so the handler never touches
+        //   game state the simulation may be using
+        if (!isGameOver()) {
+            if (e.getCode() == KeyCode.RIGHT) theGame.getInputQueue().crawl(10);
+            else if (e.getCode() == KeyCode.LEFT) theGame.getInputQueue().crawl(-10);
+            else if (e.getCode() == KeyCode.UP) theGame.getInputQueue().fire();
         }
+        if (e.getCode() == KeyCode.M) metricsOverlay.toggle();
     }
 
-    private void resetGame() {
-        // remove all game sprites but keep the scoreboard node in place
-        gamePane.getChildren().removeIf(n -> n != board);
-
-        // rebuild the manager
-        theGame = new OhCoconutsGameManager(
+    private OhCoconutsGameManager newGame() {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(
                 (int) (gamePane.getPrefHeight() - theBeach.getPrefHeight()),
                 (int) (gamePane.getPrefWidth()),
-                gamePane);
+                simulationThread ? RenderSink.NONE
+                        : renderer == Renderer.CANVAS ? new CanvasRenderSink(gamePane) : new PaneRenderSink(gamePane),
+                TICKS_PER_SECOND);
+        game.setSpawnScheduler(spawner);
+        game.setContinuousCollision(sweptCollision);
+        game.getMetrics().gauge("scene nodes", () -> gamePane.getChildren().size());
+        return game;
+    }
 
-        // reattach the scoreboard as an observer
-        theGame.attach(board);
+    // the scoreboard gets each tick's events on the FX thread, wherever the game ticks
+    private void attachBoard() {
+        if (simulationThread) theGame.attach(board, Platform::runLater);
+        else theGame.attach(board, Delivery.BATCHED);
+    }
 
-        // reset local counters (timer display etc.)
-        tickCounter = 0;
+    private boolean isGameOver() {
+        return simulationThread ? worker.isGameOver() : theGame.done();
+    }
+
+    private boolean isRunning() {
+        return simulationThread ? worker.isRunning() : gameLoop.isRunning();
+    }
+
+    private void resetGame() {
+        // rebuild the manager
+        if (simulationThread) {
+            // the state view's pictures are reused for the new game
+            worker.stop();
+            theGame = newGame();
+            worker = new SimulationWorker(theGame, clock);
+            stateView.setWorker(worker);
+        } else {
+            // remove all game sprites but keep the scoreboard, metrics and fps nodes in place
+            gamePane.getChildren().removeIf(n -> n != board && n != metricsOverlay && n != fpsCounter);
+            theGame = newGame();
+            gameLoop.setGame(theGame);
+        }
+        metricsOverlay.setMetrics(theGame.getMetrics());
+
+        // reattach the scoreboard as an observer
+        attachBoard();
     }
 
     // RELEASE: SPACE toggles once
     @FXML
     public void onKeyReleased(KeyEvent e) {
         if (e.getCode() == KeyCode.SPACE) {
-            if (coconutTimeline.getStatus() == Timeline.Status.RUNNING) {
-                coconutTimeline.pause();
+            if (isRunning()) {
+                if (simulationThread) worker.stop();
+                else gameLoop.stop();
             } else {
                 // If last game is over, rebuild everything
-                if (theGame.done()) {
+                if (isGameOver()) {
                     resetGame();
                 }
-                coconutTimeline.play();
+                if (simulationThread) worker.start();
+                else gameLoop.start();
             }
         }
     }
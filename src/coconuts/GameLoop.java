@@ -0,0 +1,76 @@
+package coconuts;
+
+import javafx.animation.AnimationTimer;
+
+// Fixed-timestep driver: runs on every JavaFX pulse, simulates as many whole ticks as the
+//   GameClock's game time calls for, then renders once with the leftover fraction of a tick as
+//   the interpolation factor. A slow frame is caught up on the next pulse instead of slowing
+//   the game down, and the clock's time scale speeds the game up or slows it down
+public class GameLoop extends AnimationTimer {
+    private final long nanosPerTick;
+    private final GameClock clock;
+    private OhCoconutsGameManager game;
+    private long lastClockNanos = 0;
+    private long accumulatedNanos = 0;
+    private boolean running = false;
+
+    public GameLoop(OhCoconutsGameManager game) {
+        this(game, GameClock.system());
+    }
+
+    public GameLoop(OhCoconutsGameManager game, GameClock clock) {
+        this.game = game;
+        this.clock = clock;
+        this.nanosPerTick = 1_000_000_000L / game.getTicksPerSecond();
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public void setGame(OhCoconutsGameManager game) {
+        this.game = game;
+        accumulatedNanos = 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void start() {
+        clock.start();
+        lastClockNanos = clock.nanos();
+        running = true;
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        clock.stop();
+        super.stop();
+    }
+
+    @Override
+    public void handle(long now) {
+        TickMetrics metrics = game.getMetrics();
+        long t = metrics.start();
+        long clockNanos = clock.nanos();
+        accumulatedNanos += clockNanos - lastClockNanos;
+        lastClockNanos = clockNanos;
+
+        while (accumulatedNanos >= nanosPerTick) {
+            // drop, step, collide, and emit TICK about once per second
+            game.tick();
+            accumulatedNanos -= nanosPerTick;
+            if (game.done()) {
+                accumulatedNanos = 0;
+                stop();
+                break;
+            }
+        }
+        game.render((double) accumulatedNanos / nanosPerTick);
+        metrics.record(TickMetrics.Phase.FRAME, t);
+    }
+}
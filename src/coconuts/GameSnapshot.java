@@ -0,0 +1,123 @@
+package coconuts;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+// The complete state of a game between two ticks, packed into one byte array: counters, the
+//   random generator, and the kind, id and position of every live object. A snapshot can be
+//   restored into the game it came from (rollback), written to a file and read back after a
+//   restart (pause and resume), or turned into any number of independent headless copies
+//   (what-if runs). Observers, render sinks and settings such as the broad-phase or the spawn
+//   scheduler are not part of the state; whoever restores a snapshot brings their own
+// Layout: header (magic, version, height, width, ticks per second, seed, random state,
+//   counters, spawn credit, crab alive, object count), then one fixed-width record per object
+//   in the game's own order: kind byte, id, x, y, previous x, previous y, velocity
+public final class GameSnapshot {
+    static final int MAGIC = 0x434f534e;   // "COSN"
+    static final int VERSION = 2;
+    // where each header field starts; the object records follow at HEADER_BYTES
+    static final int MAGIC_AT = 0, VERSION_AT = 4, HEIGHT_AT = 8, WIDTH_AT = 12, TICKS_PER_SECOND_AT = 16;
+    static final int SEED_AT = 20, RANDOM_STATE_AT = 28;
+    static final int GAME_TICK_AT = 36, COCONUTS_IN_FLIGHT_AT = 40, TICKS_RUN_AT = 44, STEPS_TAKEN_AT = 48;
+    static final int RETIRED_OBJECTS_AT = 56, NEXT_ID_AT = 64, SPAWN_CREDIT_AT = 68, CRAB_ALIVE_AT = 76;
+    static final int OBJECT_COUNT_AT = 77;
+    static final int HEADER_BYTES = OBJECT_COUNT_AT + 4;
+    static final int OBJECT_BYTES = 1 + 4 * 6;
+    static final byte KIND_CRAB = 0, KIND_BEACH = 1, KIND_COCONUT = 2, KIND_LASER = 3;
+
+    private final byte[] data;
+
+    GameSnapshot(byte[] data) {
+        this.data = data;
+    }
+
+    // a buffer sized for the given number of objects, to be filled by the game
+    static ByteBuffer allocate(int objects) {
+        return ByteBuffer.allocate(HEADER_BYTES + objects * OBJECT_BYTES);
+    }
+
+    // read-only view of the state, positioned at the start, for the game to restore from; read
+    //   the header with the *_AT offsets
+    ByteBuffer buffer() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    public int getHeight() {
+        return buffer().getInt(HEIGHT_AT);
+    }
+
+    public int getWidth() {
+        return buffer().getInt(WIDTH_AT);
+    }
+
+    public int getTicksPerSecond() {
+        return buffer().getInt(TICKS_PER_SECOND_AT);
+    }
+
+    public long getSeed() {
+        return buffer().getLong(SEED_AT);
+    }
+
+    // the game's tick count (OhCoconutsGameManager.getTick()) when the snapshot was taken
+    public int getTick() {
+        return buffer().getInt(TICKS_RUN_AT);
+    }
+
+    public int getObjectCount() {
+        return buffer().getInt(OBJECT_COUNT_AT);
+    }
+
+    /** Builds a new game in exactly the snapshot's state, drawing to the given sink */
+    public OhCoconutsGameManager newGame(RenderSink renderSink) {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(getHeight(), getWidth(), renderSink,
+                getTicksPerSecond(), getSeed());
+        game.restore(this);
+        return game;
+    }
+
+    /** Builds a new headless game in exactly the snapshot's state */
+    public OhCoconutsGameManager newGame() {
+        return newGame(RenderSink.NONE);
+    }
+
+    public int sizeInBytes() {
+        return data.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream stream = new DataOutputStream(out);
+        stream.writeInt(data.length);
+        stream.write(data);
+        stream.flush();
+    }
+
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    public static GameSnapshot read(InputStream in) throws IOException {
+        DataInputStream stream = new DataInputStream(in);
+        int length = stream.readInt();
+        if (length < HEADER_BYTES) throw new IOException("not a coconuts snapshot");
+        byte[] data = new byte[length];
+        stream.readFully(data);
+        return fromByteArray(data);
+    }
+
+    public static GameSnapshot fromByteArray(byte[] data) throws IOException {
+        if (data.length < HEADER_BYTES) throw new IOException("not a coconuts snapshot");
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt(MAGIC_AT) != MAGIC) throw new IOException("not a coconuts snapshot");
+        int version = buffer.getInt(VERSION_AT);
+        if (version != VERSION) throw new IOException("unsupported snapshot version " + version);
+        int objects = buffer.getInt(OBJECT_COUNT_AT);
+        if (objects < 0 || data.length != HEADER_BYTES + (long) objects * OBJECT_BYTES) {
+            throw new IOException("truncated snapshot");
+        }
+        return new GameSnapshot(data.clone());
+    }
+}
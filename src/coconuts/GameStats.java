@@ -0,0 +1,67 @@
+package coconuts;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts the same things ScoreBoard shows, without any GUI, so headless runs can report them
+// Only the thread that delivers the events writes the counters, with ordered writes and no
+//   locks, so any other thread (a metrics exporter, a monitor) can read them at any time and
+//   sees each counter's latest value or one just before it
+public class GameStats implements Observer {
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong beach = new AtomicLong();
+    private final AtomicLong shots = new AtomicLong();
+    private final AtomicLong seconds = new AtomicLong();
+    private final AtomicLong crabsKilled = new AtomicLong();
+
+    @Override
+    public void update(HitEvent event) {
+        switch (event.getType()) {
+            case LASER_HIT -> increment(destroyed);
+            case BEACH_HIT -> increment(beach);
+            case CRAB_HIT -> increment(crabsKilled);
+            case SHOT_FIRED -> increment(shots);
+            case TICK -> increment(seconds);
+            default -> { }
+        }
+    }
+
+    // single writer, so no compare-and-set is needed
+    private static void increment(AtomicLong counter) {
+        counter.lazySet(counter.get() + 1);
+    }
+
+    // Adds another game's counts to these; on the writing thread, or when both are idle
+    public void add(GameStats other) {
+        destroyed.lazySet(destroyed.get() + other.getDestroyed());
+        beach.lazySet(beach.get() + other.getBeach());
+        shots.lazySet(shots.get() + other.getShots());
+        seconds.lazySet(seconds.get() + other.getSeconds());
+        crabsKilled.lazySet(crabsKilled.get() + other.getCrabsKilled());
+    }
+
+    public long getDestroyed() {
+        return destroyed.get();
+    }
+
+    public long getBeach() {
+        return beach.get();
+    }
+
+    public long getShots() {
+        return shots.get();
+    }
+
+    public long getSeconds() {
+        return seconds.get();
+    }
+
+    public long getCrabsKilled() {
+        return crabsKilled.get();
+    }
+
+    @Override
+    public String toString() {
+        return "destroyed=" + getDestroyed() + " beach=" + getBeach() + " shots=" + getShots()
+                + " seconds=" + getSeconds() + " crabsKilled=" + getCrabsKilled();
+    }
+}
@@ -0,0 +1,124 @@
+package coconuts;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a game without any GUI toolkit, as fast as the CPU allows (balancing runs, soak tests,
+//   server-side replays). Each call to tick() does what one GameController timeline frame does
+// With a GameClock the game is paced instead: runPaced() plays in game time, e.g. at ten times
+//   real speed, and a manual clock steps it by exact amounts of time with advance() and catchUp()
+public class HeadlessSimulation {
+    // same playing field as coconuts.fxml: 550 px of game pane minus the 50 px beach
+    public static final int SKY_HEIGHT = 500;
+    public static final int ISLAND_WIDTH = 600;
+
+    private final OhCoconutsGameManager game;
+    private final long nanosPerTick;
+    private long ticks = 0;
+    private GameClock clock;
+    private long lastClockNanos = 0;
+    private long owedNanos = 0;
+
+    public HeadlessSimulation() {
+        this(new OhCoconutsGameManager(SKY_HEIGHT, ISLAND_WIDTH));
+    }
+
+    public HeadlessSimulation(OhCoconutsGameManager game) {
+        this.game = game;
+        this.nanosPerTick = 1_000_000_000L / game.getTicksPerSecond();
+    }
+
+    public OhCoconutsGameManager getGame() {
+        return game;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public void tick() {
+        game.tick();
+        ticks++;
+    }
+
+    /**
+     * Ticks until the game is over or maxTicks ticks have run; returns the number of ticks run
+     */
+    public long runUntilDone(long maxTicks) {
+        long start = ticks;
+        while (!game.done() && ticks - start < maxTicks) {
+            tick();
+        }
+        return ticks - start;
+    }
+
+    // Paces the game by the clock from now on; game time already on the clock doesn't count
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+        this.lastClockNanos = clock.nanos();
+        this.owedNanos = 0;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Runs the ticks that have come due on the clock since the last call, one per
+     * 1 / ticksPerSecond of game time, stopping early if the game ends; returns how many ran
+     */
+    public long catchUp() {
+        if (clock == null) throw new IllegalStateException("no clock set");
+        long clockNanos = clock.nanos();
+        owedNanos += clockNanos - lastClockNanos;
+        lastClockNanos = clockNanos;
+        long start = ticks;
+        while (owedNanos >= nanosPerTick && !game.done()) {
+            tick();
+            owedNanos -= nanosPerTick;
+        }
+        return ticks - start;
+    }
+
+    /**
+     * Plays in step with a running system clock until the game is over or maxTicks ticks have
+     * run, sleeping between ticks; returns the number of ticks run
+     */
+    public long runPaced(long maxTicks) {
+        if (clock == null) throw new IllegalStateException("no clock set");
+        clock.start();
+        long start = ticks;
+        while (!game.done() && ticks - start < maxTicks) {
+            if (catchUp() == 0) {
+                LockSupport.parkNanos(Math.max(1, clock.toRealNanos(nanosPerTick - owedNanos)));
+            }
+        }
+        return ticks - start;
+    }
+
+    // usage: HeadlessSimulation [games] [maxTicksPerGame] [classic|storm] [timeScale]
+    //   without a time scale the games run flat out; with one, each is paced by a system clock
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+        boolean storm = args.length > 2 && args[2].equals("storm");
+        double timeScale = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        long totalTicks = 0;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            HeadlessSimulation simulation = new HeadlessSimulation();
+            if (storm) simulation.getGame().setSpawnScheduler(SpawnScheduler.storm());
+            if (timeScale > 0) {
+                GameClock clock = GameClock.system();
+                clock.setTimeScale(timeScale);
+                simulation.setClock(clock);
+                totalTicks += simulation.runPaced(maxTicks);
+            } else {
+                totalTicks += simulation.runUntilDone(maxTicks);
+            }
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%d games, %d ticks in %.2f s (%.0f ticks/s)%n",
+                games, totalTicks, seconds, totalTicks / seconds);
+    }
+}
@@ -1,25 +1,97 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-
-import java.util.Collection;
-import java.util.LinkedList;
-
 // An abstraction of all objects that can be hit by another object
 // This captures the Subject side of the Observer pattern; observers of the hit event will take action
 //   to process that event
+// Events raised by the game are pooled: the game refills the same HitEvent objects every tick,
+//   so an observer that wants to keep an event past its update call should keep copy() or pack().
+//   Retired coconuts and lasers are reused too, so the event keeps the tick it happened at and
+//   where its objects were then; read anything else needed from the hitter and target during
+//   the update call
 // This is a domain class; do not introduce JavaFX or other GUI components here
 public class HitEvent {
-    private final HitEventType type;
-    private final IslandObject hitter;
-    private final IslandObject target;
+    // packed layout: type ordinal in the top 8 bits, then 28 bits each of hitter and target id
+    private static final int ID_BITS = 28;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final HitEventType[] TYPES = HitEventType.values();
+
+    private HitEventType type;
+    private IslandObject hitter;
+    private IslandObject target;
+    // taken when the event is raised, so they stay right however late it is delivered
+    private int tick;
+    private int hitterId, targetId;
+    private int hitterX, hitterY, targetX, targetY;
     public HitEvent(HitEventType type, IslandObject hitter, IslandObject target) {
-        this.type = type; this.hitter = hitter; this.target = target;
+        set(-1, type, hitter, target);
+    }
+    HitEvent(int tick, HitEventType type, IslandObject hitter, IslandObject target) {
+        set(tick, type, hitter, target);
+    }
+    private HitEvent(HitEvent other) {
+        this.type = other.type; this.hitter = other.hitter; this.target = other.target;
+        this.tick = other.tick;
+        this.hitterId = other.hitterId; this.targetId = other.targetId;
+        this.hitterX = other.hitterX; this.hitterY = other.hitterY;
+        this.targetX = other.targetX; this.targetY = other.targetY;
     }
     public HitEventType getType() { return type; }
     public IslandObject getHitter() { return hitter; }
     public IslandObject getTarget() { return target; }
-}
+    // the game's tick (OhCoconutsGameManager.getTick()) when the event was raised; -1 if it
+    //   wasn't raised by a game
+    public int getTick() { return tick; }
+    // ids of the hitter and target when the event was raised (a reused object gets a new one); -1 for none
+    public int getHitterId() { return hitterId; }
+    public int getTargetId() { return targetId; }
+    // left x and top y of the hitter and target when the event was raised; 0 for no object
+    public int getHitterX() { return hitterX; }
+    public int getHitterY() { return hitterY; }
+    public int getTargetX() { return targetX; }
+    public int getTargetY() { return targetY; }
+
+    // refills a pooled event
+    void set(int tick, HitEventType type, IslandObject hitter, IslandObject target) {
+        this.type = type; this.hitter = hitter; this.target = target;
+        this.tick = tick;
+        this.hitterId = hitter == null ? -1 : hitter.getId();
+        this.targetId = target == null ? -1 : target.getId();
+        this.hitterX = hitter == null ? 0 : hitter.getLeftX();
+        this.hitterY = hitter == null ? 0 : hitter.getTopY();
+        this.targetX = target == null ? 0 : target.getLeftX();
+        this.targetY = target == null ? 0 : target.getTopY();
+    }
+
+    /** Returns an unpooled event with the same contents, safe to keep */
+    public HitEvent copy() {
+        return new HitEvent(this);
+    }
+
+    /** Encodes this event as its type and the ids of the objects involved (-1 for none) */
+    public long pack() {
+        return pack(type, hitterId, targetId);
+    }
 
+    public static long pack(HitEventType type, int hitterId, int targetId) {
+        return ((long) type.ordinal() << (2 * ID_BITS))
+                | ((hitterId & ID_MASK) << ID_BITS)
+                | (targetId & ID_MASK);
+    }
 
+    public static HitEventType typeOf(long packed) {
+        return TYPES[(int) (packed >>> (2 * ID_BITS))];
+    }
 
+    public static int hitterIdOf(long packed) {
+        return unpackId(packed >>> ID_BITS);
+    }
+
+    public static int targetIdOf(long packed) {
+        return unpackId(packed);
+    }
+
+    private static int unpackId(long bits) {
+        int id = (int) (bits & ID_MASK);
+        return id == ID_MASK ? -1 : id;
+    }
+}
@@ -1,13 +1,11 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-
 // Represents island objects which can be hit
 // This is a domain class; do not introduce JavaFX or other GUI components here
 public abstract class HittableIslandObject extends IslandObject {
 
-    public HittableIslandObject(OhCoconutsGameManager game, int x, int y, int width, Image image) {
-        super(game, x, y, width, image);
+    public HittableIslandObject(OhCoconutsGameManager game, int x, int y, int width, Sprite sprite) {
+        super(game, x, y, width, sprite);
     }
 
     @Override
@@ -0,0 +1,186 @@
+package coconuts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// Compact binary log of everything a player did in a game: each crab crawl and laser shot
+//   with the tick it happened before. The header also keeps what the game was set up with
+//   (seed, size, rate, collision mode and spawn scheduler), so the log alone is enough to
+//   replay the whole session headless at full speed with identical hit events
+// Layout: header (magic, version, seed, height, width, ticks per second, swept collision
+//   flag, spawn scheduler settings), then one record per input: varint tick delta, op byte,
+//   and for crawls a zig-zag varint offset. An END record carries the tick the session
+//   stopped at
+public class InputLog {
+    private static final int MAGIC = 0x434f434f;   // "COCO"
+    // version 2: the game's random generator changed, so version 1 logs would replay differently
+    // version 3: the header keeps the spawn scheduler
+    private static final int VERSION = 3;
+    private static final byte OP_END = 0, OP_CRAWL = 1, OP_FIRE = 2;
+
+    private final long seed;
+    private final int height, width, ticksPerSecond;
+    private final boolean continuousCollision;
+    private final SpawnScheduler spawner;
+    private byte[] records = new byte[256];
+    private int length = 0;
+    private long lastTick = 0;
+    private boolean finished = false;
+
+    private InputLog(long seed, int height, int width, int ticksPerSecond, boolean continuousCollision,
+                     SpawnScheduler spawner) {
+        this.seed = seed;
+        this.height = height;
+        this.width = width;
+        this.ticksPerSecond = ticksPerSecond;
+        this.continuousCollision = continuousCollision;
+        this.spawner = spawner;
+    }
+
+    static InputLog forGame(OhCoconutsGameManager game) {
+        InputLog log = new InputLog(game.getSeed(), game.getHeight(), game.getWidth(), game.getTicksPerSecond(),
+                game.isContinuousCollision(), game.getSpawnScheduler());
+        log.lastTick = game.getTick();
+        return log;
+    }
+
+    void recordCrawl(long tick, int offset) {
+        beginRecord(tick, OP_CRAWL);
+        writeVarint((offset << 1) ^ (offset >> 31));
+    }
+
+    void recordFire(long tick) {
+        beginRecord(tick, OP_FIRE);
+    }
+
+    /** Marks the tick the session ended at; a replay runs up to exactly this tick */
+    public void finish(long tick) {
+        beginRecord(tick, OP_END);
+        finished = true;
+    }
+
+    private void beginRecord(long tick, byte op) {
+        if (finished) throw new IllegalStateException("input log already finished");
+        if (tick < lastTick) throw new IllegalArgumentException("inputs must be logged in tick order");
+        writeVarint(tick - lastTick);
+        lastTick = tick;
+        ensureRoom(1);
+        records[length++] = op;
+    }
+
+    private void writeVarint(long value) {
+        ensureRoom(10);
+        while ((value & ~0x7FL) != 0) {
+            records[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        records[length++] = (byte) value;
+    }
+
+    private void ensureRoom(int bytes) {
+        if (length + bytes > records.length) records = Arrays.copyOf(records, Math.max(records.length * 2, length + bytes));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(seed);
+        data.writeInt(height);
+        data.writeInt(width);
+        data.writeInt(ticksPerSecond);
+        data.writeBoolean(continuousCollision);
+        spawner.writeTo(data);
+        data.writeInt(length);
+        data.write(records, 0, length);
+        data.flush();
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(length + 32);
+        try {
+            writeTo(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);   // can't happen writing to memory
+        }
+        return bytes.toByteArray();
+    }
+
+    public static InputLog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("not a coconuts input log");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("unsupported input log version " + version);
+        InputLog log = new InputLog(data.readLong(), data.readInt(), data.readInt(), data.readInt(),
+                data.readBoolean(), SpawnScheduler.read(data));
+        int length = data.readInt();
+        log.records = new byte[Math.max(length, 1)];
+        data.readFully(log.records, 0, length);
+        log.length = length;
+        return log;
+    }
+
+    /** Builds a headless game set up exactly like the recorded one */
+    public OhCoconutsGameManager newGame() {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(height, width, RenderSink.NONE, ticksPerSecond, seed);
+        game.setContinuousCollision(continuousCollision);
+        game.setSpawnScheduler(spawner);
+        return game;
+    }
+
+    /**
+     * Replays the logged inputs into a game built by newGame() (attach observers first),
+     * ticking it as fast as possible up to the END record, or up to the last input if the log
+     * was never finished. Returns the tick the game stopped at
+     */
+    public long replay(OhCoconutsGameManager game) throws IOException {
+        int position = 0;
+        long tick = 0;
+        while (position < length) {
+            long[] varint = readVarint(position);
+            position = (int) varint[1];
+            tick += varint[0];
+            while (game.getTick() < tick) game.tick();
+            if (position >= length) throw new EOFException("truncated input log");
+            byte op = records[position++];
+            switch (op) {
+                case OP_CRAWL -> {
+                    long[] offset = readVarint(position);
+                    position = (int) offset[1];
+                    int zigZag = (int) offset[0];
+                    game.crawlCrab((zigZag >>> 1) ^ -(zigZag & 1));
+                }
+                case OP_FIRE -> game.fireLaserFromCrab();
+                case OP_END -> {
+                    game.flushEvents();
+                    return game.getTick();
+                }
+                default -> throw new IOException("bad input log op " + op);
+            }
+        }
+        game.flushEvents();
+        return game.getTick();
+    }
+
+    // returns {value, next position}
+    private long[] readVarint(int position) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= length) throw new EOFException("truncated input log");
+            byte b = records[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return new long[]{value, position};
+        }
+        throw new IOException("malformed varint in input log");
+    }
+}
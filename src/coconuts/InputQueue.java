@@ -0,0 +1,109 @@
+package coconuts;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Player input on its way from the UI thread to the game: key handlers enqueue commands, and
+//   the game applies them at the start of its next tick, on whatever thread runs the ticks.
+//   Single producer, single consumer, no locks: a fixed ring of slots with one index owned by
+//   each side, published with ordered writes
+// A tick takes at most one shot (the game's fire rate), and draining keeps the order the keys
+//   came in: it takes the crawls queued before the shot, the shot, and the crawls after it,
+//   adding up each run of crawls into one. A second shot ends the drain and waits, with
+//   whatever came after it, for the next tick. So a tick's input work stays the same however
+//   fast keys repeat and no shot is lost. When the ring is full (nobody is ticking) new input
+//   is dropped
+public final class InputQueue {
+    private static final int CAPACITY = 1024;          // power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final int OP_CRAWL = 1, OP_FIRE = 2;
+
+    // command in the high half (op) and low half (crawl offset); enqueue time in nanos
+    private final long[] commands = new long[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    private final AtomicLong head = new AtomicLong();   // next slot to read; written by consumer
+    private final AtomicLong tail = new AtomicLong();   // next slot to write; written by producer
+    private long cachedHead = 0;                        // producer's last look at head
+    private long cachedTail = 0;                        // consumer's last look at tail
+
+    // result of the last drain(), for the consumer
+    private int crawlBeforeShot;
+    private boolean fire;
+    private int crawlAfterShot;
+    private long oldestNanos;
+
+    /** Queues a sideways crawl; false if the queue is full and the input was dropped */
+    public boolean crawl(int offset) {
+        return offer(((long) OP_CRAWL << 32) | (offset & 0xFFFFFFFFL));
+    }
+
+    /** Queues a laser shot; false if the queue is full and the input was dropped */
+    public boolean fire() {
+        return offer((long) OP_FIRE << 32);
+    }
+
+    private boolean offer(long command) {
+        long t = tail.get();
+        if (t - cachedHead >= CAPACITY) {
+            cachedHead = head.get();
+            if (t - cachedHead >= CAPACITY) return false;
+        }
+        int slot = (int) (t & MASK);
+        commands[slot] = command;
+        timestamps[slot] = System.nanoTime();
+        tail.lazySet(t + 1);                            // publishes the slot to the consumer
+        return true;
+    }
+
+    /**
+     * Takes one tick's worth of what was queued, up to but not including a second shot; read
+     * the result with getCrawlBeforeShot(), isFire(), getCrawlAfterShot() and getOldestNanos().
+     * Returns false, leaving the previous result, if nothing was queued. Consumer side only
+     */
+    boolean drain() {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.get();
+            if (h == cachedTail) return false;
+        }
+        int before = 0, after = 0;
+        boolean shot = false;
+        oldestNanos = timestamps[(int) (h & MASK)];
+        for (; h != cachedTail; h++) {
+            long command = commands[(int) (h & MASK)];
+            if ((int) (command >>> 32) == OP_CRAWL) {
+                if (shot) after += (int) command;
+                else before += (int) command;
+            } else if (shot) {
+                break;                                  // the next tick's shot
+            } else {
+                shot = true;
+            }
+        }
+        head.lazySet(h);                                // hands the slots back to the producer
+        crawlBeforeShot = before;
+        fire = shot;
+        crawlAfterShot = after;
+        return true;
+    }
+
+    // total crawl of the last drain before its shot (all of it if there was none); 0 if
+    //   crawls cancelled out or there were none
+    int getCrawlBeforeShot() {
+        return crawlBeforeShot;
+    }
+
+    // whether the last drain held a shot
+    boolean isFire() {
+        return fire;
+    }
+
+    // total crawl of the last drain after its shot
+    int getCrawlAfterShot() {
+        return crawlAfterShot;
+    }
+
+    // when the oldest command of the last drain was queued, from System.nanoTime()
+    long getOldestNanos() {
+        return oldestNanos;
+    }
+}
@@ -1,43 +1,149 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-
 // an object in the game, either something coming from the island or falling on it
 // Each island object has a location and can determine if it hits another island object
 // This is a domain class; do not introduce JavaFX or other GUI components here
 public abstract class IslandObject {
     protected final int width;
     protected final OhCoconutsGameManager containingGame;
-    protected int x, y;
-    ImageView imageView = null;
-    private static final int HIT_EPS = 8;
+    // position while this object is not registered with a game; while it is, the position
+    //   lives in the game's EntityStore at index slot
+    int x, y;
+    int velocityY = 0;
+    EntityStore store = null;
+    int slot = -1;
+    private final Sprite sprite;
+    // whatever the render sink attached to this object (e.g. its ImageView); opaque to the domain
+    Object renderHandle = null;
+    static final int HIT_EPS = 8;
+    // registration order within the game; used to keep candidate pairs in brute-force order
+    int id = -1;
+    // last broad-phase query that returned this object (de-duplicates multi-cell hits)
+    int queryStamp = 0;
+    // set once the game has retired this object; it is no longer stepped or collision-tested
+    boolean removed = false;
+    // set when the object is scheduled for removal at the end of this tick; it can't be hit again
+    boolean retiring = false;
+    // bucket the game keeps this object in for collisions; set when it is registered
+    CollisionGroup collisionGroup = CollisionGroup.OTHER;
 
-    public IslandObject(OhCoconutsGameManager game, int x, int y, int width, Image image) {
+    public IslandObject(OhCoconutsGameManager game, int x, int y, int width, Sprite sprite) {
         containingGame = game;
-        if (image != null) {
-            imageView = new ImageView(image);
-            imageView.setPreserveRatio(true);
-            imageView.setFitWidth(width);
-        }
+        this.sprite = sprite;
         this.x = x;
         this.y = y;
         this.width = width;
-        display();
         //System.out.println(this + " left " + left() + " right " + right());
     }
 
-    protected ImageView getImageView() {
-        return imageView;
+    // Brings a retired object back as if newly constructed at (x, y), so the game can reuse it
+    //   instead of allocating; it gets a fresh id when it is registered again
+    void reuseAt(int x, int y) {
+        this.x = x;
+        this.y = y;
+        id = -1;
+        removed = false;
+        retiring = false;
+        renderHandle = null;
     }
 
-    public void display() {
-        if (imageView != null) {
-            imageView.setLayoutX(x);
-            imageView.setLayoutY(y);
+    public int getId() {
+        return id;
+    }
+
+    /** Returns the picture this object is drawn with, or null if it is invisible */
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    // Vertical distance covered per step; the entity store uses it when stepping in bulk
+    protected void setVelocityY(int velocityY) {
+        this.velocityY = velocityY;
+        if (store != null) store.velocityY[slot] = velocityY;
+    }
+
+    public int getVelocityY() {
+        return store != null ? store.velocityY[slot] : velocityY;
+    }
+
+    protected void moveBy(int dx, int dy) {
+        if (store != null) {
+            store.x[slot] += dx;
+            store.y[slot] += dy;
+            store.renderDirty[slot] = true;
+        } else {
+            x += dx;
+            y += dy;
         }
     }
 
+    // Where to draw this object when a frame falls alpha of the way from the previous tick
+    //   to the current one
+    public double getRenderX(double alpha) {
+        if (store == null) return x;
+        int previous = store.previousX[slot];
+        return previous + (store.x[slot] - previous) * alpha;
+    }
+
+    public double getRenderY(double alpha) {
+        if (store == null) return y;
+        int previous = store.previousY[slot];
+        return previous + (store.y[slot] - previous) * alpha;
+    }
+
+    // Makes the current position the interpolation start as well, so a move made between
+    //   ticks (such as player input) shows up at once instead of gliding in
+    protected void settle() {
+        if (store != null) {
+            store.previousX[slot] = store.x[slot];
+            store.previousY[slot] = store.y[slot];
+            store.renderDirty[slot] = true;
+        }
+    }
+
+    int previousLeftX() {
+        return store != null ? store.previousX[slot] : x;
+    }
+
+    int previousTopY() {
+        return store != null ? store.previousY[slot] : y;
+    }
+
+    // bounds covering both the previous and the current position, for broad-phase lookups
+    int sweptLeftX() {
+        return Math.min(previousLeftX(), getLeftX());
+    }
+
+    int sweptRightX() {
+        return Math.max(previousLeftX(), getLeftX()) + width;
+    }
+
+    int sweptTopY() {
+        return Math.min(previousTopY(), getTopY());
+    }
+
+    int sweptBottomY() {
+        return Math.max(previousTopY(), getTopY()) + width;
+    }
+
+    private int posX() {
+        return store != null ? store.x[slot] : x;
+    }
+
+    private int posY() {
+        return store != null ? store.y[slot] : y;
+    }
+
+    // Pushes the position to the render sink right away; the game's render pass normally does
+    //   this once per frame for whatever moved
+    public void display() {
+        containingGame.getRenderSink().moved(this);
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
     public boolean isHittable() {
         return false;
     }
@@ -54,6 +160,8 @@ public abstract class IslandObject {
         return false;
     }
 
+    // Collision rule: whether this object hits objects of the other's kind. The game caches
+    //   the answer per CollisionGroup pair, so it must not depend on position or state
     public boolean canHit(IslandObject other) {
         return false;
     }
@@ -75,36 +183,92 @@ public abstract class IslandObject {
         return yAligned && xOverlap;
     }
 
+    /**
+     * Continuous version of isTouching: true if the two objects were touching at any moment
+     * between the previous tick and this one, taking both to move in a straight line. Fast
+     * objects can't pass through each other between ticks, and anything isTouching accepts
+     * is accepted here too
+     */
+    public boolean isTouchingSwept(IslandObject other) {
+        return timeOfImpact(other) >= 0;
+    }
+
+    /**
+     * Earliest moment in the last tick (0 = previous tick, 1 = now) at which the isTouching
+     * conditions held for the two objects, or -1 if they never did
+     */
+    public double timeOfImpact(IslandObject other) {
+        // the y "match" as a distance at the start and end of the tick
+        double d0 = (this.previousTopY() + (this.isFalling() ? width : 0))
+                - (other.previousTopY() + (other.isFalling() ? other.width : 0));
+        double d1 = (this.isFalling() ? this.getBottomY() : this.getTopY())
+                - (other.isFalling() ? other.getBottomY() : other.getTopY());
+        double yLow = Math.max(0, Math.max(lowerBound(HIT_EPS - d0, HIT_EPS - d1), lowerBound(HIT_EPS + d0, HIT_EPS + d1)));
+        double yHigh = Math.min(1, Math.min(upperBound(HIT_EPS - d0, HIT_EPS - d1), upperBound(HIT_EPS + d0, HIT_EPS + d1)));
+        if (yLow > yHigh) return -1;
+
+        // x overlap, either way round: center of one within left..right of the other
+        double best = Math.min(centerWithin(this, other, yLow, yHigh), centerWithin(other, this, yLow, yHigh));
+        return best == Double.POSITIVE_INFINITY ? -1 : best;
+    }
+
+    // earliest t in [low, high] where a's center lies between b's left and right, or +infinity
+    private static double centerWithin(IslandObject a, IslandObject b, double low, double high) {
+        double center0 = a.previousLeftX() + a.width / 2, center1 = a.getCenterX();
+        double left0 = b.previousLeftX(), left1 = b.getLeftX();
+        double right0 = left0 + b.width, right1 = b.getRightX();
+        low = Math.max(low, Math.max(lowerBound(center0 - left0, center1 - left1), lowerBound(right0 - center0, right1 - center1)));
+        high = Math.min(high, Math.min(upperBound(center0 - left0, center1 - left1), upperBound(right0 - center0, right1 - center1)));
+        return low <= high ? low : Double.POSITIVE_INFINITY;
+    }
+
+    // For f(t) = f0 + (f1 - f0) t, the smallest t from which f(t) >= 0 holds onwards
+    //   (-infinity if f never turns negative going forward, +infinity if it is always negative)
+    private static double lowerBound(double f0, double f1) {
+        double slope = f1 - f0;
+        if (slope > 0) return -f0 / slope;
+        if (slope == 0) return f0 >= 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    // For f(t) = f0 + (f1 - f0) t, the largest t up to which f(t) >= 0 holds
+    private static double upperBound(double f0, double f1) {
+        double slope = f1 - f0;
+        if (slope < 0) return -f0 / slope;
+        if (slope == 0) return f0 >= 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        return Double.POSITIVE_INFINITY;
+    }
+
     public double getX() {
-        return x;
+        return posX();
     }
 
     public double getY() {
-        return y;
+        return posY();
     }
 
     public int getTopY() {
-        return y;
+        return posY();
     }
 
     /** Returns the bottom Y coordinate of this object */
     public int getBottomY() {
-        return y + width;
+        return posY() + width;
     }
 
     /** Returns the left X coordinate of this object */
     public int getLeftX() {
-        return x;
+        return posX();
     }
 
     /** Returns the right X coordinate of this object */
     public int getRightX() {
-        return x + width;
+        return posX() + width;
     }
 
     /** Returns the center X coordinate of this object */
     public int getCenterX() {
-        return x + width / 2;
+        return posX() + width / 2;
     }
 
     public boolean isCrab() { return false; }
@@ -0,0 +1,73 @@
+package coconuts;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streams the records of a journal written by EventJournal, segment by segment, straight out
+//   of read-only memory maps; nothing is allocated per record. Unused space at the end of a
+//   segment (where a session was closed) is skipped, and the journal ends at the first
+//   segment number with no file
+public class JournalReader {
+    private static final HitEventType[] TYPES = HitEventType.values();
+
+    // Receives one journal record; ids are -1 and positions 0 where there was no object
+    public interface RecordVisitor {
+        void record(int tick, HitEventType type, int hitterId, int targetId,
+                    int hitterX, int hitterY, int targetX, int targetY);
+    }
+
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Calls visitor for every record in journal order; returns the number of records read
+     */
+    public long scan(RecordVisitor visitor) throws IOException {
+        long records = 0;
+        for (int number = 0; ; number++) {
+            Path path = EventJournal.segmentPath(directory, number);
+            if (!Files.exists(path)) {
+                if (number == 0) throw new NoSuchFileException(path.toString());
+                return records;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (b.capacity() < EventJournal.HEADER_BYTES || b.getInt(0) != EventJournal.MAGIC) {
+                    throw new IOException(path + " is not an event journal segment");
+                }
+                if (b.getInt(4) != EventJournal.VERSION || b.getInt(8) != EventJournal.RECORD_BYTES) {
+                    throw new IOException(path + " has an unsupported journal version");
+                }
+                for (int at = EventJournal.HEADER_BYTES; at + EventJournal.RECORD_BYTES <= b.capacity();
+                     at += EventJournal.RECORD_BYTES) {
+                    int type = b.getInt(at + 4);
+                    if (type == 0) break;   // unused space: this segment ends here
+                    visitor.record(b.getInt(at), TYPES[type - 1], b.getInt(at + 8), b.getInt(at + 12),
+                            b.getInt(at + 16), b.getInt(at + 20), b.getInt(at + 24), b.getInt(at + 28));
+                    records++;
+                }
+            }
+        }
+    }
+
+    // usage: JournalReader directory; prints how many events of each type the journal holds
+    public static void main(String[] args) throws IOException {
+        long[] counts = new long[TYPES.length];
+        long start = System.nanoTime();
+        long records = new JournalReader(Path.of(args[0])).scan(
+                (tick, type, hitterId, targetId, hx, hy, tx, ty) -> counts[type.ordinal()]++);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (HitEventType type : TYPES) {
+            System.out.println(type + ": " + counts[type.ordinal()]);
+        }
+        System.out.printf("%d records in %.3f s (%.0f records/s)%n", records, seconds, records / seconds);
+    }
+}
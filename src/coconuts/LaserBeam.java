@@ -1,22 +1,21 @@
 package coconuts;
 
-import javafx.scene.image.Image;
-
 // Represents the beam of light moving from the crab to a coconut; can hit only falling objects
 // This is a domain class; do not introduce JavaFX or other GUI components here
 public class LaserBeam extends IslandObject {
-    private static final Image laserImage = new Image("file:images/laser-1.png");
-    private static final int WIDTH  = 6;          // thickness on screen
+    static final int WIDTH  = 6;          // thickness on screen
     private static final int SPEED  = 12;
 
     public LaserBeam(OhCoconutsGameManager game, int eyeHeight, int crabCenterX) {
-        super(game, crabCenterX, eyeHeight, WIDTH, laserImage);
+        // Sprite.LASER is stretched rather than scaled, so it renders at the thickness we pass as WIDTH
+        super(game, crabCenterX, eyeHeight, WIDTH, Sprite.LASER);
+        setVelocityY(-SPEED);
+    }
 
-        // ensure the image renders at the thickness we pass as WIDTH
-        if (getImageView() != null) {
-            getImageView().setPreserveRatio(false);
-            getImageView().setFitWidth(WIDTH);
-        }
+    // pooled beams are fired again from the crab
+    void reuse(int eyeHeight, int crabCenterX) {
+        reuseAt(crabCenterX, eyeHeight);
+        setVelocityY(-SPEED);
     }
 
     // Laser is not a target; it hits others
@@ -33,15 +32,16 @@ public class LaserBeam extends IslandObject {
 
     // Per spec, laser uses its TOP y when checking “touching”
     @Override
-    protected int hittable_height() { return y; }
+    protected int hittable_height() { return getTopY(); }
 
+    // EntityStore.stepBulk mirrors this for lasers
     @Override
     public void step() {
         // move the beam upward
-        y -= SPEED;
+        moveBy(0, containingGame.distanceThisTick(getVelocityY()));
 
         // if it goes off the top, schedule removal (manager will clean up)
-        if (y < 0) {
+        if (getTopY() < 0) {
             containingGame.scheduleForDeletion(this);
         }
     }
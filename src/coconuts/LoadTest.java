@@ -0,0 +1,160 @@
+package coconuts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Soak test: plays thousands of complete headless games with bot players, as fast as the
+//   machine allows, and reports throughput, tick latency and how much the heap grew. The first
+//   tenth of the games is a warm-up; heap growth is measured from the end of the warm-up to the
+//   end of the run (both after a GC), so a leak shows up as growth that scales with the games
+// The last line is a single key=value summary for CI logs; with a heap limit given, the
+//   process exits with status 1 when the growth exceeds it
+public class LoadTest {
+    private final String strategyName;
+    private final int threads;
+    private final long maxTicksPerGame;
+    private final boolean storm;
+    private final boolean sweptCollision;
+
+    // results of one batch of games, merged over all threads
+    private final LatencyHistogram tickNanos = new LatencyHistogram();
+    private long ticks = 0;
+    private int cappedGames = 0;
+
+    public LoadTest(String strategyName, int threads, long maxTicksPerGame, boolean storm, boolean sweptCollision) {
+        BotStrategy.named(strategyName);     // fail fast on a bad name
+        this.strategyName = strategyName;
+        this.threads = threads;
+        this.maxTicksPerGame = maxTicksPerGame;
+        this.storm = storm;
+        this.sweptCollision = sweptCollision;
+    }
+
+    /** Plays games with seeds from firstSeed up to (not including) lastSeed on the test's threads */
+    public void play(int firstSeed, int lastSeed) {
+        AtomicInteger nextSeed = new AtomicInteger(firstSeed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "coconuts-loadtest");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Worker>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    Worker worker = new Worker();
+                    for (int seed; (seed = nextSeed.getAndIncrement()) < lastSeed; ) {
+                        worker.playGame(seed);
+                    }
+                    return worker;
+                }));
+            }
+            for (Future<Worker> result : results) {
+                Worker worker = result.get();
+                tickNanos.add(worker.tickNanos);
+                ticks += worker.ticks;
+                cappedGames += worker.cappedGames;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("load test interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("load test game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public LatencyHistogram getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // games stopped at maxTicksPerGame rather than played to done()
+    public int getCappedGames() {
+        return cappedGames;
+    }
+
+    // one thread's games; keeps its own histogram so recording needs no locking
+    private class Worker {
+        final LatencyHistogram tickNanos = new LatencyHistogram();
+        long ticks = 0;
+        int cappedGames = 0;
+
+        void playGame(int seed) {
+            OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                    HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, seed);
+            if (storm) game.setSpawnScheduler(SpawnScheduler.storm());
+            game.setContinuousCollision(sweptCollision);
+            BotStrategy bot = BotStrategy.named(strategyName);
+            SplittableRandom random = new SplittableRandom(~seed);
+            long played = 0;
+            while (!game.done() && played < maxTicksPerGame) {
+                if (game.getCrab() != null) bot.play(game, random);
+                long start = System.nanoTime();
+                game.tick();
+                tickNanos.record(System.nanoTime() - start);
+                played++;
+            }
+            ticks += played;
+            if (!game.done()) cappedGames++;
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // usage: LoadTest [games] [random|always-fire|track-nearest] [threads] [maxTicksPerGame]
+    //                 [classic|storm] [discrete|swept] [maxHeapGrowthMb]
+    //   collision defaults to swept for storms and discrete for classic games, as in the game
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        String strategy = args.length > 1 ? args[1] : "track-nearest";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long maxTicks = args.length > 3 ? Long.parseLong(args[3]) : 20_000;
+        boolean storm = args.length > 4 && args[4].equals("storm");
+        boolean swept = args.length > 5 ? args[5].equals("swept") : storm;
+        double maxHeapGrowthMb = args.length > 6 ? Double.parseDouble(args[6]) : Double.NaN;
+
+        int warmUpGames = Math.max(1, games / 10);
+        new LoadTest(strategy, threads, maxTicks, storm, swept).play(0, warmUpGames);
+        long heapBefore = usedHeapAfterGc();
+
+        LoadTest test = new LoadTest(strategy, threads, maxTicks, storm, swept);
+        long startNanos = System.nanoTime();
+        test.play(warmUpGames, warmUpGames + games);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long heapAfter = usedHeapAfterGc();
+
+        LatencyHistogram latency = test.getTickNanos();
+        double growthMb = (heapAfter - heapBefore) / (1024.0 * 1024.0);
+        System.out.printf("%d games (%d stopped at %d ticks), %s bots, %d threads, %s spawning, %s collision%n",
+                games, test.getCappedGames(), maxTicks, strategy, threads, storm ? "storm" : "classic",
+                swept ? "swept" : "discrete");
+        System.out.printf("%.2f s: %.1f games/s, %.0f ticks/s%n", seconds, games / seconds, test.getTicks() / seconds);
+        System.out.printf("tick latency: p50 %s, p99 %s, max %s%n", TickMetrics.micros(latency.getValueAtPercentile(50)),
+                TickMetrics.micros(latency.getValueAtPercentile(99)), TickMetrics.micros(latency.getMax()));
+        System.out.printf("heap after warm-up %.1f MB, at end %.1f MB, growth %.2f MB%n",
+                heapBefore / (1024.0 * 1024.0), heapAfter / (1024.0 * 1024.0), growthMb);
+        System.out.printf("loadtest games=%d games_per_s=%.1f ticks_per_s=%.0f p99_tick_ns=%d heap_growth_mb=%.2f%n",
+                games, games / seconds, test.getTicks() / seconds, latency.getValueAtPercentile(99), growthMb);
+        if (growthMb > maxHeapGrowthMb) {
+            System.out.printf("heap grew %.2f MB, more than the allowed %.2f MB%n", growthMb, maxHeapGrowthMb);
+            System.exit(1);
+        }
+    }
+}
@@ -11,13 +11,35 @@ public class Main extends Application {
     public Main() {
     }
 
+    // usage: Main [--renderer=nodes|canvas] [--simulation=fx|thread] [--spawn=classic|storm]
+    //             [--collision=discrete|swept] [--time-scale=1.0]
+    //   collision defaults to swept with storm spawning, whose coconuts fall too fast for the
+    //   discrete test, and to discrete otherwise
     public static void main(String[] args) {
         launch(args);
     }
 
+    // runs before start(), off the FX thread: the sprite pictures start loading in the
+    //   background before the stage and the FXML are even looked at
+    @Override
+    public void init() {
+        SpriteAssets.preload();
+    }
+
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("coconuts.fxml"));
+        String rendererName = getParameters().getNamed().getOrDefault("renderer", "nodes");
+        GameController.Renderer renderer = GameController.Renderer.valueOf(rendererName.toUpperCase());
+        boolean simulationThread = "thread".equals(getParameters().getNamed().get("simulation"));
+        boolean storm = "storm".equals(getParameters().getNamed().get("spawn"));
+        SpawnScheduler spawner = storm ? SpawnScheduler.storm() : SpawnScheduler.classic();
+        boolean sweptCollision = "swept".equals(getParameters().getNamed().getOrDefault("collision",
+                storm ? "swept" : "discrete"));
+        double timeScale = Double.parseDouble(getParameters().getNamed().getOrDefault("time-scale", "1"));
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("coconuts.fxml"));
+        loader.setControllerFactory(type ->
+                new GameController(renderer, simulationThread, spawner, sweptCollision, timeScale));
+        Parent root = loader.load();
         primaryStage.setTitle("A Lonely Beach");
         primaryStage.setScene(new Scene(root));
         primaryStage.show();
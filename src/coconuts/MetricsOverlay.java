@@ -0,0 +1,75 @@
+package coconuts;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+// Small text panel showing a game's TickMetrics: p50/p99/max per phase and the gauges.
+//   Repaints a few times a second while visible; showing it turns metrics on, hiding it
+//   turns them off again so a hidden overlay costs nothing
+public class MetricsOverlay extends VBox {
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final Label phases = new Label();
+    private final Label gauges = new Label();
+    private TickMetrics metrics;
+    private long lastRefresh = 0;
+
+    public MetricsOverlay(TickMetrics metrics) {
+        this.metrics = metrics;
+        setSpacing(4);
+        setPadding(new Insets(6, 12, 6, 12));
+        setMouseTransparent(true);
+        getStyleClass().add("metrics");
+        phases.setStyle("-fx-font-family: monospace;");
+        gauges.setStyle("-fx-font-family: monospace;");
+        getChildren().addAll(phases, gauges);
+        setVisible(false);
+
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (isVisible() && now - lastRefresh >= REFRESH_NANOS) {
+                    lastRefresh = now;
+                    refresh();
+                }
+            }
+        }.start();
+    }
+
+    // Follows a new game (after a reset), keeping the on/off state
+    public void setMetrics(TickMetrics metrics) {
+        metrics.setEnabled(isVisible());
+        this.metrics = metrics;
+    }
+
+    public void toggle() {
+        boolean show = !isVisible();
+        metrics.setEnabled(show);
+        setVisible(show);
+        if (show) refresh();
+    }
+
+    private void refresh() {
+        StringBuilder text = new StringBuilder("phase        p50      p99      max");
+        for (TickMetrics.Phase phase : TickMetrics.Phase.values()) {
+            LatencyHistogram h = metrics.get(phase);
+            if (h.getCount() == 0) continue;
+            text.append(String.format("%n%-8s %8s %8s %8s", phase.name().toLowerCase(),
+                    TickMetrics.micros(h.getValueAtPercentile(50)), TickMetrics.micros(h.getValueAtPercentile(99)),
+                    TickMetrics.micros(h.getMax())));
+        }
+        phases.setText(text.toString());
+
+        StringBuilder values = new StringBuilder();
+        for (Map.Entry<String, IntSupplier> gauge : metrics.getGauges().entrySet()) {
+            if (values.length() > 0) values.append('\n');
+            values.append(gauge.getKey()).append(": ").append(gauge.getValue().getAsInt());
+        }
+        gauges.setText(values.toString());
+    }
+}
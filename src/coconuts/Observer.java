@@ -1,5 +1,15 @@
 package coconuts;
 
+import java.util.List;
+
 public interface Observer {
     void update(HitEvent event);
+
+    // Receives a whole tick's events at once (BATCHED and ASYNC delivery); observers that
+    //   only need to react once per batch can override this
+    default void updateAll(List<HitEvent> events) {
+        for (int i = 0, n = events.size(); i < n; i++) {
+            update(events.get(i));
+        }
+    }
 }
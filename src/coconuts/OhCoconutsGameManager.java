@@ -2,50 +2,142 @@ package coconuts;
 
 // https://stackoverflow.com/questions/42443148/how-to-correctly-separate-view-from-model-in-javafx
 
-import javafx.scene.layout.Pane;
-
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 
 // This class manages the game, including tracking all island objects and detecting when they hit
+// Drawing goes through a RenderSink, so the game also runs headless (RenderSink.NONE)
 public class OhCoconutsGameManager implements Subject{
-    private final List<Observer> observers = new ArrayList<>();
-    private final Collection<IslandObject> allObjects = new LinkedList<>();
-    private final Collection<HittableIslandObject> hittableIslandSubjects = new LinkedList<>();
-    private final Collection<IslandObject> scheduledForRemoval = new LinkedList<>();
+    private final EventBus events = new EventBus();
+    private final List<IslandObject> allObjects = new ArrayList<>();
+    // every object again, split by collision group; each keeps registration (id) order
+    private final EnumMap<CollisionGroup, List<IslandObject>> buckets = new EnumMap<>(CollisionGroup.class);
+    private final CollisionMatrix collisionMatrix = new CollisionMatrix();
+    // members of the groups something can hit this tick; what the broad-phase indexes
+    private final List<HittableIslandObject> targets = new ArrayList<>();
+    private final List<IslandObject> scheduledForRemoval = new ArrayList<>();
+    // retired coconuts and lasers kept for reuse, so spawning doesn't allocate
+    private static final int MAX_POOLED = 4096;
+    private final ArrayDeque<Coconut> coconutPool = new ArrayDeque<>();
+    private final ArrayDeque<LaserBeam> laserPool = new ArrayDeque<>();
     private final int height, width;
-    private final int DROP_INTERVAL = 10;
-    private final int MAX_TIME = 100;
-    private Pane gamePane;
+    // speeds and spawn timings are tuned for this many ticks per second; other simulation
+    //   rates scale them so a second of play looks the same
+    public static final int BASE_TICKS_PER_SECOND = 30;
+    private final int ticksPerSecond;
+    private SpawnScheduler spawner;
+    private int dropIntervalTicks, maxTimeTicks;
+    // fractional coconuts owed by the spawner's rate, in thousandths of a coconut per tick rate
+    private long spawnCredit = 0;
+    // coconuts dropped this tick, registered together
+    private final List<IslandObject> spawnBatch = new ArrayList<>();
+    private final List<HittableIslandObject> candidates = new ArrayList<>();
+    private final List<HittableIslandObject> contacts = new ArrayList<>();
+    private final SweptContacts sweptContacts = new SweptContacts();
+    private static final Comparator<IslandObject> BY_ID = Comparator.comparingInt(IslandObject::getId);
+    // values() clones the array on every call; the tick loops over this one instead
+    private static final CollisionGroup[] GROUPS = CollisionGroup.values();
+    private final EntityStore entities = new EntityStore();
+    private boolean bulkStepping = false;
+    private boolean continuousCollision = false;
+    private BroadPhase broadPhase;
+    private int nextId = 0;
+    private final RenderSink renderSink;
     private Crab theCrab;
     private Beach theBeach;
     /* game play */
     private int coconutsInFlight = 0;
     private int gameTick = 0;
+    private long retiredObjects = 0;
+    private int ticksRun = 0;
+    private int drawnLastFrame = 0;
+    private long stepsTaken = 0;
+    // per-game generator: runs are reproducible from the seed and games don't share state.
+    //   It is SplitMix64 (the algorithm behind SplittableRandom) kept as a bare long so a
+    //   snapshot can capture and restore it
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final long seed;
+    private long randomState;
+    private InputLog inputLog = null;
+    private final InputQueue inputQueue = new InputQueue();
+    private final TickMetrics metrics = new TickMetrics();
+
+    // Headless game: nothing is drawn
+    public OhCoconutsGameManager(int height, int width) {
+        this(height, width, RenderSink.NONE);
+    }
 
-    public OhCoconutsGameManager(int height, int width, Pane gamePane) {
+    public OhCoconutsGameManager(int height, int width, RenderSink renderSink) {
+        this(height, width, renderSink, BASE_TICKS_PER_SECOND);
+    }
+
+    public OhCoconutsGameManager(int height, int width, RenderSink renderSink, int ticksPerSecond) {
+        this(height, width, renderSink, ticksPerSecond, ThreadLocalRandom.current().nextLong());
+    }
+
+    // Same seed and same inputs (see InputLog) give the same game, tick for tick
+    public OhCoconutsGameManager(int height, int width, RenderSink renderSink, int ticksPerSecond, long seed) {
+        if (ticksPerSecond <= 0) throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
         this.height = height;
         this.width = width;
-        this.gamePane = gamePane;
+        this.renderSink = renderSink;
+        this.ticksPerSecond = ticksPerSecond;
+        this.seed = seed;
+        this.randomState = seed;
+        setSpawnScheduler(SpawnScheduler.classic());
+        this.broadPhase = new UniformGridBroadPhase(width, height);
+        for (CollisionGroup group : CollisionGroup.values()) {
+            buckets.put(group, new ArrayList<>());
+        }
 
         this.theCrab = new Crab(this, height, width);
         registerObject(theCrab);
-        gamePane.getChildren().add(theCrab.getImageView());
 
         this.theBeach = new Beach(this, height, width);
         registerObject(theBeach);
-        if (theBeach.getImageView() != null)
-            System.out.println("Unexpected image view for beach");
+
+        metrics.gauge("live objects", allObjects::size);
+        metrics.gauge("coconuts", () -> buckets.get(CollisionGroup.COCONUT).size());
+        metrics.gauge("lasers", () -> buckets.get(CollisionGroup.LASER).size());
+        metrics.gauge("entity slots", entities::capacity);
+        metrics.gauge("drawn per frame", () -> drawnLastFrame);
     }
 
-    private void registerObject(IslandObject object) {
-        allObjects.add(object);
-        if (object.isHittable()) {
-            HittableIslandObject asHittable = (HittableIslandObject) object;
-            hittableIslandSubjects.add(asHittable);
+    void registerObject(IslandObject object) {
+        registerObject(object, nextId++);
+    }
+
+    // Registers the coconuts of one tick's spawn together: one pass over the game's lists and
+    //   a single call to the render sink
+    private void registerObjects(List<IslandObject> objects) {
+        for (int i = 0, n = objects.size(); i < n; i++) {
+            track(objects.get(i), nextId++);
         }
+        renderSink.addedAll(objects);
+    }
+
+    private void registerObject(IslandObject object, int id) {
+        track(object, id);
+        renderSink.added(object);
+    }
+
+    private void track(IslandObject object, int id) {
+        object.id = id;
+        entities.attach(object);
+        allObjects.add(object);
+        object.collisionGroup = CollisionGroup.of(object);
+        buckets.get(object.collisionGroup).add(object);
+    }
+
+    public RenderSink getRenderSink() {
+        return renderSink;
     }
 
     public int getHeight() {
@@ -56,21 +148,181 @@ public class OhCoconutsGameManager implements Subject{
         return width;
     }
 
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Number of calls to tick() so far; inputs are logged against this
+    public int getTick() {
+        return ticksRun;
+    }
+
+    // Game time simulated so far: tick n ends at n / ticksPerSecond seconds, whatever the
+    //   wall clock or the driver's time scale did meanwhile
+    public long getGameNanos() {
+        return (long) ticksRun * 1_000_000_000L / ticksPerSecond;
+    }
+
+    /**
+     * Starts logging this game's inputs (crawlCrab and fireLaserFromCrab) so the session can
+     * be replayed headless; record from the start of the game for an exact replay
+     */
+    public InputLog startRecording() {
+        inputLog = InputLog.forGame(this);
+        return inputLog;
+    }
+
+    // converts a count of BASE_TICKS_PER_SECOND ticks into ticks at this game's rate
+    int scaleTicks(int baseTicks) {
+        return (int) ((long) baseTicks * ticksPerSecond / BASE_TICKS_PER_SECOND);
+    }
+
+    /**
+     * Distance to move this tick for a speed given in pixels per base tick. At rates other than
+     * BASE_TICKS_PER_SECOND the speed is spread over the ticks so positions stay whole pixels
+     * and the distance covered per second stays exact
+     */
+    public int distanceThisTick(int pixelsPerBaseTick) {
+        if (ticksPerSecond == BASE_TICKS_PER_SECOND) return pixelsPerBaseTick;
+        long perSecond = (long) pixelsPerBaseTick * BASE_TICKS_PER_SECOND;
+        return (int) (Math.floorDiv(perSecond * (stepsTaken + 1), ticksPerSecond)
+                - Math.floorDiv(perSecond * stepsTaken, ticksPerSecond));
+    }
+
+    // Number of objects still being stepped and collision-tested
+    public int getLiveObjectCount() {
+        return allObjects.size();
+    }
+
+    // Number of objects removed from the game since it started
+    public long getRetiredObjectCount() {
+        return retiredObjects;
+    }
+
     public void coconutDestroyed() {
         coconutsInFlight -= 1;
     }
 
+    /**
+     * Sets how coconuts come down from now on (by default SpawnScheduler.classic()); the
+     * scheduler's duration becomes the length of the round
+     */
+    public void setSpawnScheduler(SpawnScheduler spawner) {
+        this.spawner = spawner;
+        this.dropIntervalTicks = spawner.getDropEveryBaseTicks() > 0
+                ? Math.max(1, scaleTicks(spawner.getDropEveryBaseTicks())) : 0;
+        this.maxTimeTicks = scaleTicks(spawner.getDurationBaseTicks());
+    }
+
+    public SpawnScheduler getSpawnScheduler() {
+        return spawner;
+    }
+
     public void tryDropCoconut() {
         if (theCrab == null) return;
-        if (gameTick % DROP_INTERVAL == 0) {
-            coconutsInFlight++;
-            Coconut c = new Coconut(this, (int)(Math.random()*width));
-            registerObject(c);
-            gamePane.getChildren().add(c.getImageView());
+        if (spawner.isOpenEnded() || gameTick < maxTimeTicks) {
+            int drops = 0;
+            if (dropIntervalTicks > 0 && gameTick % dropIntervalTicks == 0) drops++;
+            drops += spawner.burstAt(gameTick, ticksPerSecond);
+            long milliRate = spawner.milliRateAt(gameTick, ticksPerSecond);
+            if (milliRate > 0) {
+                long perCoconut = 1000L * ticksPerSecond;
+                spawnCredit += milliRate;
+                drops += (int) (spawnCredit / perCoconut);
+                spawnCredit %= perCoconut;
+            }
+            if (drops > 0) dropCoconuts(drops);
         }
         gameTick++;
     }
 
+    private void dropCoconuts(int count) {
+        int speed = spawner.getSpeed(), variance = spawner.getSpeedVariance();
+        spawnBatch.clear();
+        for (int i = 0; i < count; i++) {
+            Coconut c = newCoconut(nextRandomInt(width));
+            // no draw without a spread, so the classic game's random sequence is unchanged
+            int spread = variance > 0 ? nextRandomInt(2 * variance + 1) - variance : 0;
+            c.setVelocityY(Math.max(1, speed + spread));
+            spawnBatch.add(c);
+        }
+        coconutsInFlight += count;
+        registerObjects(spawnBatch);
+        spawnBatch.clear();
+    }
+
+    // uniform in [0, bound); one generator step per call
+    private int nextRandomInt(int bound) {
+        long z = (randomState += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+
+    // Per-phase timings and gauges for this game; disabled until someone turns them on
+    public TickMetrics getMetrics() {
+        return metrics;
+    }
+
+    public EntityStore getEntityStore() {
+        return entities;
+    }
+
+    // When on, coconuts and lasers are moved by one loop over the entity store's arrays
+    //   instead of a step() call per object; the result is the same
+    public void setBulkStepping(boolean bulkStepping) {
+        this.bulkStepping = bulkStepping;
+    }
+
+    // When on, objects hit if they touched at any point during the tick (isTouchingSwept)
+    //   rather than only where they ended up, so fast objects can't pass through each other
+    public void setContinuousCollision(boolean continuousCollision) {
+        this.continuousCollision = continuousCollision;
+    }
+
+    public boolean isContinuousCollision() {
+        return continuousCollision;
+    }
+
+    // Swaps the collision broad-phase; BruteForceBroadPhase checks every pair
+    public void setBroadPhase(BroadPhase broadPhase) {
+        this.broadPhase = broadPhase;
+    }
+
+    private Coconut newCoconut(int x) {
+        Coconut c = coconutPool.poll();
+        if (c == null) return new Coconut(this, x);
+        c.reuse(x);
+        return c;
+    }
+
+    private LaserBeam newLaser(int eyeHeight, int crabCenterX) {
+        LaserBeam laser = laserPool.poll();
+        if (laser == null) return new LaserBeam(this, eyeHeight, crabCenterX);
+        laser.reuse(eyeHeight, crabCenterX);
+        return laser;
+    }
+
+    // Keeps a retired coconut or laser for reuse; subclasses are left alone since reuse
+    //   only knows how to restart the base classes
+    private void recycle(IslandObject o) {
+        if (o.getClass() == Coconut.class && coconutPool.size() < MAX_POOLED) {
+            coconutPool.push((Coconut) o);
+        } else if (o.getClass() == LaserBeam.class && laserPool.size() < MAX_POOLED) {
+            laserPool.push((LaserBeam) o);
+        }
+    }
+
+    // The coconuts in play, oldest first; for bots and tools on the game's thread, read only
+    List<IslandObject> coconuts() {
+        return buckets.get(CollisionGroup.COCONUT);
+    }
+
     public Crab getCrab() {
         return theCrab;
     }
@@ -79,128 +331,421 @@ public class OhCoconutsGameManager implements Subject{
         theCrab = null;
     }
 
+    // One full simulation step as driven by the game clock: maybe drop a coconut, move and
+    //   collide everything, and emit TICK at the end of every second of game time
+    public void tick() {
+        applyQueuedInput();
+        long t = metrics.start();
+        tryDropCoconut();
+        metrics.record(TickMetrics.Phase.DROP, t);
+        advanceOneTick();
+        if (++ticksRun % ticksPerSecond == 0) {
+            events.publish(ticksRun, HitEventType.TICK, null, null);
+            t = metrics.start();
+            events.flush();
+            metrics.record(TickMetrics.Phase.DISPATCH, t);
+        }
+    }
+
     public void advanceOneTick() {
-        for (IslandObject o : allObjects) {
-            o.step();
-            o.display();
+        long t = metrics.start();
+        entities.savePreviousPositions();
+        if (bulkStepping) {
+            entities.stepBulk(this);
+            entities.stepOthers();
+        } else {
+            for (int i = 0, n = allObjects.size(); i < n; i++) {
+                allObjects.get(i).step();
+            }
         }
-        // see if objects hit; the hit itself is something you will add
-        // you can't change the lists while processing them, so collect
-        //   items to be removed in the first pass and remove them later
-        scheduledForRemoval.clear();
-        for (IslandObject thisObj : allObjects) {
-            for (HittableIslandObject hittable : hittableIslandSubjects) {
-                if (thisObj == hittable) continue;
+        t = metrics.record(TickMetrics.Phase.STEP, t);
+        collide();
+        t = metrics.record(TickMetrics.Phase.COLLIDE, t);
+        removeScheduledObjects();
+        stepsTaken++;
+        t = metrics.record(TickMetrics.Phase.REMOVE, t);
+        events.flush();
+        metrics.record(TickMetrics.Phase.DISPATCH, t);
+    }
 
-                if (thisObj.isTouching(hittable)) {
-                    HitEventType type = null;
+    /**
+     * Finds every hit this tick and applies it. Only groups the CollisionMatrix says can hit
+     * each other are tested: each hitter, in id order, looks up nearby targets through the
+     * broad-phase, except the ground, which simply takes every target that has reached its
+     * level. Something already hit this tick can't be hit again, and a hitter that a hit used
+     * up (a laser, the crab) hits nothing more. With continuous collision all contacts are
+     * gathered first and applied in time-of-impact order instead
+     */
+    private void collide() {
+        collisionMatrix.resolve(buckets);
+        targets.clear();
+        for (int g = 0; g < GROUPS.length; g++) {
+            CollisionGroup group = GROUPS[g];
+            if (!collisionMatrix.isTarget(group)) continue;
+            List<IslandObject> bucket = buckets.get(group);
+            for (int i = 0, n = bucket.size(); i < n; i++) {
+                IslandObject o = bucket.get(i);
+                if (o.isHittable()) targets.add((HittableIslandObject) o);
+            }
+        }
+        broadPhase.rebuild(targets);
+
+        for (int i = 0, n = allObjects.size(); i < n; i++) {
+            IslandObject hitter = allObjects.get(i);
+            CollisionGroup group = hitter.collisionGroup;
+            if (!collisionMatrix.isHitter(group) || hitter.retiring) continue;
+            contacts.clear();
+            if (group == CollisionGroup.GROUND) {
+                collectLanded(hitter);
+            } else {
+                candidates.clear();
+                broadPhase.candidatesFor(hitter, candidates);
+                for (int j = 0, m = candidates.size(); j < m; j++) {
+                    HittableIslandObject target = candidates.get(j);
+                    if (target == hitter || target.retiring
+                            || !collisionMatrix.canHit(group, target.collisionGroup)) continue;
+                    if (continuousCollision) {
+                        double time = hitter.timeOfImpact(target);
+                        if (time >= 0) sweptContacts.add(hitter, target, time);
+                    } else if (hitter.isTouching(target)) {
+                        contacts.add(target);
+                    }
+                }
+            }
+            if (continuousCollision) {
+                for (int j = 0, m = contacts.size(); j < m; j++) {
+                    sweptContacts.add(hitter, contacts.get(j), landingTime(hitter, contacts.get(j)));
+                }
+                continue;
+            }
+            // same order as scanning every target in turn; contacts are few, so this
+            //   sorts in place without allocating
+            if (contacts.size() > 1) contacts.sort(BY_ID);
+
+            for (int j = 0, m = contacts.size(); j < m && !hitter.retiring; j++) {
+                HittableIslandObject target = contacts.get(j);
+                if (target.retiring) continue;
+                applyHit(group.getHitType(), hitter, target);
+            }
+        }
+        if (continuousCollision) applySweptContacts();
+    }
 
-                    // 1) Coconut hits crab (thisObj is the crab, hittable is the coconut)
-                    if (thisObj.isCrab() && hittable.isCoconut()) {
-                        type = HitEventType.CRAB_HIT;
+    // Earliest first; a contact whose hitter or target was used up by an earlier one is void
+    private void applySweptContacts() {
+        sweptContacts.sort();
+        for (int i = 0, n = sweptContacts.size(); i < n; i++) {
+            IslandObject hitter = sweptContacts.hitter(i);
+            HittableIslandObject target = sweptContacts.target(i);
+            if (hitter.retiring || target.retiring) continue;
+            applyHit(hitter.collisionGroup.getHitType(), hitter, target);
+        }
+        sweptContacts.clear();
+    }
 
-                        // 2) Coconut hits beach (thisObj is ground, hittable is the coconut)
-                    } else if (thisObj.isGroundObject() && hittable.isCoconut()) {
-                        type = HitEventType.BEACH_HIT;
+    // When during the tick a landed target came down to the ground's level (the same test as
+    //   collectLanded, interpolated between its previous and current position)
+    private static double landingTime(IslandObject ground, HittableIslandObject target) {
+        int level = ground.getTopY() - IslandObject.HIT_EPS;
+        int extent = target.isFalling() ? target.getBottomY() - target.getTopY() : 0;
+        int y0 = target.previousTopY() + extent, y1 = target.getTopY() + extent;
+        if (y0 >= level || y1 == y0) return 0;
+        return Math.min(1, (double) (level - y0) / (y1 - y0));
+    }
 
-                        // 3) Laser hits coconut (thisObj is laser, hittable is coconut)
-                    } else if (thisObj.isLaser() && hittable.isCoconut()) {
-                        type = HitEventType.LASER_HIT;
-                    }
+    // Ground contacts: every target that has come down to the ground's level over its width.
+    //   A single threshold instead of a pairwise touch test, so nothing can fall through
+    private void collectLanded(IslandObject ground) {
+        int level = ground.getTopY() - IslandObject.HIT_EPS;
+        for (int i = 0, n = targets.size(); i < n; i++) {
+            HittableIslandObject target = targets.get(i);
+            if (target.retiring || !collisionMatrix.canHit(ground.collisionGroup, target.collisionGroup)) continue;
+            int targetY = target.isFalling() ? target.getBottomY() : target.getTopY();
+            if (targetY >= level && target.getLeftX() < ground.getRightX() && target.getRightX() > ground.getLeftX()) {
+                contacts.add(target);
+            }
+        }
+    }
 
-                    if (type == null) {
-                        // nothing interesting about this contact—skip
-                        continue;
-                    }
+    // Publishes a hit and schedules what it destroys
+    private void applyHit(HitEventType type, IslandObject hitter, HittableIslandObject target) {
+        events.publish(ticksRun, type, hitter, target);
+        switch (type) {
+            case LASER_HIT -> {
+                // the coconut goes, and the laser with it
+                scheduleForDeletion(target);
+                coconutDestroyed();
+                scheduleForDeletion(hitter);
+            }
+            case BEACH_HIT -> {
+                scheduleForDeletion(target);
+                coconutDestroyed();
+            }
+            case CRAB_HIT -> {
+                // the coconut goes, and so does the crab, which stops the game spawning more
+                scheduleForDeletion(target);
+                coconutDestroyed();
+                if (removeCrabNow()) events.publish(ticksRun, HitEventType.GAME_OVER, hitter, target);
+            }
+            default -> {
+            }
+        }
+    }
 
-                    // notify observers
-                    notifyAllObservers(new HitEvent(type, thisObj, hittable));
-
-                    // apply effects & schedule removals
-                    switch (type) {
-                        case LASER_HIT -> {
-                            IslandObject coconut = hittable;             // the hittable is the coconut
-                            scheduledForRemoval.add(coconut);
-                            if (coconut.getImageView() != null) gamePane.getChildren().remove(coconut.getImageView());
-                            coconutDestroyed();
-
-                            IslandObject laser = thisObj;                // remove the laser too
-                            scheduledForRemoval.add(laser);
-                            if (laser.getImageView() != null) gamePane.getChildren().remove(laser.getImageView());
-                        }
-                        case BEACH_HIT -> {
-                            IslandObject coconut = hittable;
-                            scheduledForRemoval.add(coconut);
-                            if (coconut.getImageView() != null) gamePane.getChildren().remove(coconut.getImageView());
-                            coconutDestroyed();
-                        }
-                        case CRAB_HIT -> {
-                            // remove coconut
-                            IslandObject coconut = hittable;
-                            scheduledForRemoval.add(coconut);
-                            if (coconut.getImageView() != null) gamePane.getChildren().remove(coconut.getImageView());
-                            coconutDestroyed();
-
-                            // remove crab & stop the game from spawning more
-                            removeCrabNow();                      // <-- add this helper (next section)
-                            notifyAllObservers(new HitEvent(HitEventType.GAME_OVER, thisObj, hittable));
-                        }
-                    }
-                }
+    // End-of-tick compaction: drops every retired object from the game's collections in a
+    //   single pass over each and tells the render sink to detach them
+    private void removeScheduledObjects() {
+        if (!scheduledForRemoval.isEmpty()) {
+            for (int i = 0, n = scheduledForRemoval.size(); i < n; i++) {
+                IslandObject o = scheduledForRemoval.get(i);
+                if (o.removed) continue;          // scheduled more than once this tick
+                o.removed = true;
+                retiredObjects++;
+                renderSink.removed(o);
+                entities.detach(o);
+                recycle(o);
+            }
+            scheduledForRemoval.clear();
+            removeRetired(allObjects);
+            for (int g = 0; g < GROUPS.length; g++) {
+                removeRetired(buckets.get(GROUPS[g]));
             }
         }
     }
 
-    private void removeCrabNow() {
-        if (theCrab == null) return;
-        if (theCrab.getImageView() != null) {
-            gamePane.getChildren().remove(theCrab.getImageView());
+    // Removes retired objects in place, keeping the order; unlike removeIf this never allocates
+    private static void removeRetired(List<? extends IslandObject> objects) {
+        int kept = 0;
+        for (int i = 0, n = objects.size(); i < n; i++) {
+            if (!objects.get(i).removed) {
+                Collections.swap(objects, i, kept++);
+            }
+        }
+        for (int i = objects.size() - 1; i >= kept; i--) {
+            objects.remove(i);
         }
-        scheduledForRemoval.add(theCrab);
+    }
+
+    /**
+     * Pushes positions to the render sink, once per displayed frame. alpha is how far the
+     * frame falls between the previous tick (0) and the latest one (1); pictures are drawn
+     * that far along so motion stays smooth when frames and ticks don't line up. Objects
+     * that are standing still and haven't been moved since they were last drawn are skipped
+     */
+    public void render(double alpha) {
+        int drawn = 0;
+        for (int i = 0, n = allObjects.size(); i < n; i++) {
+            IslandObject o = allObjects.get(i);
+            if (entities.needsRender(o.slot)) {
+                renderSink.moved(o, alpha);
+                drawn++;
+            }
+        }
+        drawnLastFrame = drawn;
+        renderSink.flush();
+    }
+
+    /**
+     * Queue for player input coming from another thread (such as JavaFX key handlers); it is
+     * applied at the start of the next tick
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    // the queued input in the order it came: the crawls before the tick's one shot, the shot,
+    //   then the crawls after it; a further shot waits for the next tick (see InputQueue)
+    private void applyQueuedInput() {
+        if (!inputQueue.drain()) return;
+        metrics.record(TickMetrics.Phase.INPUT, inputQueue.getOldestNanos());
+        if (inputQueue.getCrawlBeforeShot() != 0) crawlCrab(inputQueue.getCrawlBeforeShot());
+        if (inputQueue.isFire()) fireLaserFromCrab();
+        if (inputQueue.getCrawlAfterShot() != 0) crawlCrab(inputQueue.getCrawlAfterShot());
+    }
+
+    // Copies what the screen needs into state, for drawing on another thread
+    void captureRenderState(RenderState state) {
+        state.clear();
+        for (int i = 0, n = allObjects.size(); i < n; i++) {
+            IslandObject o = allObjects.get(i);
+            if (o.getSprite() == null) continue;
+            state.add(o.getSprite(), o.width, o.getLeftX(), o.getTopY(), o.previousLeftX(), o.previousTopY());
+        }
+        state.tick = ticksRun;
+    }
+
+    // Moves the crab sideways (player input) on the game's own thread; goes through the game
+    //   so it can be recorded
+    public void crawlCrab(int offset) {
+        if (theCrab == null) return;
+        if (inputLog != null) inputLog.recordCrawl(ticksRun, offset);
+        theCrab.crawl(offset);
+    }
+
+    // false if the crab was already gone
+    private boolean removeCrabNow() {
+        if (theCrab == null) return false;
+        scheduleForDeletion(theCrab);
         theCrab = null;
+        return true;
     }
 
 
         public void fireLaserFromCrab() {
         if (theCrab == null) return;
+        if (inputLog != null) inputLog.recordFire(ticksRun);
 
         int startY = (int) Math.round(theCrab.getY());
         int startX = (int) Math.round(theCrab.getX());
         // Match your LaserBeam constructor’s param order:
-        LaserBeam laser = new LaserBeam(this, startY, startX);
+        LaserBeam laser = newLaser(startY, startX);
         registerObject(laser);
-        if (laser.getImageView() != null) gamePane.getChildren().add(laser.getImageView());
 
-        notifyAllObservers(new HitEvent(HitEventType.SHOT_FIRED, theCrab, laser));
+        events.publish(ticksRun, HitEventType.SHOT_FIRED, theCrab, laser);
+    }
+
+    /**
+     * Captures the whole game state between ticks; cheap enough to take every tick. See
+     * GameSnapshot for what is and isn't included
+     */
+    public GameSnapshot snapshot() {
+        ByteBuffer out = GameSnapshot.allocate(allObjects.size());
+        out.putInt(GameSnapshot.MAGIC_AT, GameSnapshot.MAGIC)
+                .putInt(GameSnapshot.VERSION_AT, GameSnapshot.VERSION)
+                .putInt(GameSnapshot.HEIGHT_AT, height)
+                .putInt(GameSnapshot.WIDTH_AT, width)
+                .putInt(GameSnapshot.TICKS_PER_SECOND_AT, ticksPerSecond)
+                .putLong(GameSnapshot.SEED_AT, seed)
+                .putLong(GameSnapshot.RANDOM_STATE_AT, randomState)
+                .putInt(GameSnapshot.GAME_TICK_AT, gameTick)
+                .putInt(GameSnapshot.COCONUTS_IN_FLIGHT_AT, coconutsInFlight)
+                .putInt(GameSnapshot.TICKS_RUN_AT, ticksRun)
+                .putLong(GameSnapshot.STEPS_TAKEN_AT, stepsTaken)
+                .putLong(GameSnapshot.RETIRED_OBJECTS_AT, retiredObjects)
+                .putInt(GameSnapshot.NEXT_ID_AT, nextId)
+                .putLong(GameSnapshot.SPAWN_CREDIT_AT, spawnCredit)
+                .put(GameSnapshot.CRAB_ALIVE_AT, (byte) (theCrab != null ? 1 : 0))
+                .putInt(GameSnapshot.OBJECT_COUNT_AT, allObjects.size());
+        out.position(GameSnapshot.HEADER_BYTES);
+        for (int i = 0, n = allObjects.size(); i < n; i++) {
+            IslandObject o = allObjects.get(i);
+            out.put(snapshotKindOf(o)).putInt(o.id)
+                    .putInt(o.getLeftX()).putInt(o.getTopY())
+                    .putInt(o.previousLeftX()).putInt(o.previousTopY())
+                    .putInt(o.getVelocityY());
+        }
+        return new GameSnapshot(out.array());
+    }
+
+    private byte snapshotKindOf(IslandObject o) {
+        if (o.getClass() == Coconut.class) return GameSnapshot.KIND_COCONUT;
+        if (o.getClass() == LaserBeam.class) return GameSnapshot.KIND_LASER;
+        if (o.getClass() == Crab.class) return GameSnapshot.KIND_CRAB;
+        if (o == theBeach) return GameSnapshot.KIND_BEACH;
+        throw new IllegalStateException("can't snapshot a " + o.getClass().getName());
+    }
+
+    /**
+     * Puts this game back into the snapshot's state. The snapshot must come from a game of the
+     * same size, rate and seed. Observers and settings stay as they are; pending events are
+     * delivered first, and any input recording stops since its ticks no longer line up
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.getHeight() != height || snapshot.getWidth() != width
+                || snapshot.getTicksPerSecond() != ticksPerSecond || snapshot.getSeed() != seed) {
+            throw new IllegalArgumentException("snapshot is from a different game");
+        }
+        events.flush();
+        inputLog = null;
+        for (int i = 0, n = allObjects.size(); i < n; i++) {
+            IslandObject o = allObjects.get(i);
+            o.removed = true;
+            renderSink.removed(o);
+            entities.detach(o);
+            recycle(o);
+        }
+        allObjects.clear();
+        for (List<IslandObject> bucket : buckets.values()) {
+            bucket.clear();
+        }
+        scheduledForRemoval.clear();
+
+        ByteBuffer in = snapshot.buffer();
+        randomState = in.getLong(GameSnapshot.RANDOM_STATE_AT);
+        gameTick = in.getInt(GameSnapshot.GAME_TICK_AT);
+        coconutsInFlight = in.getInt(GameSnapshot.COCONUTS_IN_FLIGHT_AT);
+        ticksRun = in.getInt(GameSnapshot.TICKS_RUN_AT);
+        stepsTaken = in.getLong(GameSnapshot.STEPS_TAKEN_AT);
+        retiredObjects = in.getLong(GameSnapshot.RETIRED_OBJECTS_AT);
+        int restoredNextId = in.getInt(GameSnapshot.NEXT_ID_AT);
+        spawnCredit = in.getLong(GameSnapshot.SPAWN_CREDIT_AT);
+        boolean crabAlive = in.get(GameSnapshot.CRAB_ALIVE_AT) != 0;
+        int count = in.getInt(GameSnapshot.OBJECT_COUNT_AT);
+        in.position(GameSnapshot.HEADER_BYTES);
+        theCrab = null;
+        theBeach = null;
+        for (int i = 0; i < count; i++) {
+            byte kind = in.get();
+            int id = in.getInt();
+            int x = in.getInt(), y = in.getInt();
+            int previousX = in.getInt(), previousY = in.getInt();
+            int velocityY = in.getInt();
+            IslandObject o = switch (kind) {
+                case GameSnapshot.KIND_COCONUT -> newCoconut(x);
+                case GameSnapshot.KIND_LASER -> newLaser(y, x);
+                case GameSnapshot.KIND_CRAB -> theCrab = new Crab(this, height, width);
+                case GameSnapshot.KIND_BEACH -> theBeach = new Beach(this, height, width);
+                default -> throw new IllegalArgumentException("bad object kind in snapshot: " + kind);
+            };
+            registerObject(o, id);
+            entities.place(o, x, y, previousX, previousY, velocityY);
+        }
+        if (!crabAlive) theCrab = null;
+        nextId = restoredNextId;
     }
 
     public void scheduleForDeletion(IslandObject islandObject) {
+        islandObject.retiring = true;
         scheduledForRemoval.add(islandObject);
     }
 
     public boolean done() {
         //return coconutsInFlight == 0 && gameTick >= MAX_TIME;
         boolean noCoconuts = coconutsInFlight == 0;
-        boolean timeCapped = gameTick >= MAX_TIME;
+        boolean timeCapped = gameTick >= maxTimeTicks;
         boolean crabDead   = (theCrab == null);
         return (timeCapped && noCoconuts) || (crabDead && noCoconuts);
     }
 
     @Override
     public void attach(Observer o) {
-        if (!observers.contains(o)) observers.add(o);
+        if (!events.isAttached(o)) events.attach(o, Delivery.SYNC);
+    }
+
+    // Attaches an observer with the given delivery; BATCHED and ASYNC observers get each
+    //   tick's events together once the tick is over
+    public void attach(Observer o, Delivery delivery) {
+        events.attach(o, delivery);
+    }
+
+    // Attaches an ASYNC observer whose batches run on the given executor
+    public void attach(Observer o, Executor executor) {
+        events.attach(o, executor);
     }
 
     @Override
     public void detach(Observer o) {
-        observers.remove(o);
+        events.detach(o);
     }
 
     @Override
     public void notifyAllObservers(HitEvent event) {
-        for (Observer o : observers) {
-            o.update(event);
-        }
+        events.publish(event);
+    }
 
+    // Delivers events published outside a tick (such as SHOT_FIRED from key presses) to
+    //   BATCHED and ASYNC observers now rather than at the end of the next tick
+    public void flushEvents() {
+        events.flush();
     }
 }
@@ -0,0 +1,134 @@
+package coconuts;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// JavaFX render sink: every island object with a sprite gets its own ImageView in the game pane.
+//   Views of retired objects are hidden and kept in the pane for the next object with the same
+//   sprite, so rapid spawning doesn't add and remove scene-graph nodes. Views show pre-scaled
+//   regions of the SpriteAssets atlas at 1:1 rather than scaling a full-size picture. Objects
+//   shown before the pictures have loaded get empty views, filled in on the FX thread once
+//   loading finishes, so building the game never waits for the pictures
+public class PaneRenderSink implements RenderSink {
+    // hidden views kept per sprite; past this the extras really are removed from the pane
+    private static final int MAX_POOLED_VIEWS = 1024;
+
+    private final Pane gamePane;
+    private final Map<Sprite, ArrayDeque<ImageView>> hiddenViews = new EnumMap<>(Sprite.class);
+    private final Set<Node> retiredViews = new HashSet<>();
+    private final List<ImageView> createdViews = new ArrayList<>();
+    // shown while the pictures were still loading; given their pictures when loading is done
+    private final List<IslandObject> waitingForPictures = new ArrayList<>();
+    private SpriteAssets assets;
+
+    public PaneRenderSink(Pane gamePane) {
+        this.gamePane = gamePane;
+        for (Sprite sprite : Sprite.values()) {
+            hiddenViews.put(sprite, new ArrayDeque<>());
+        }
+        assets = SpriteAssets.getIfLoaded();
+        if (assets == null) SpriteAssets.preload().thenAcceptAsync(this::picturesLoaded, Platform::runLater);
+    }
+
+    private void picturesLoaded(SpriteAssets loaded) {
+        assets = loaded;
+        for (int i = 0, n = waitingForPictures.size(); i < n; i++) {
+            IslandObject object = waitingForPictures.get(i);
+            // skip objects removed meanwhile; their view may belong to another object by now
+            if (object.renderHandle instanceof ImageView view) setPicture(view, object);
+        }
+        waitingForPictures.clear();
+    }
+
+    private void setPicture(ImageView view, IslandObject object) {
+        SpriteAssets.Frame frame = assets.frame(object.getSprite(), object.width);
+        view.setImage(frame.image);
+        view.setViewport(frame.viewport);
+    }
+
+    @Override
+    public void added(IslandObject object) {
+        ImageView created = show(object);
+        if (created != null) gamePane.getChildren().add(created);
+    }
+
+    // a whole spawn batch: views that had to be created go into the pane with one addAll
+    @Override
+    public void addedAll(List<? extends IslandObject> objects) {
+        for (int i = 0, n = objects.size(); i < n; i++) {
+            ImageView created = show(objects.get(i));
+            if (created != null) createdViews.add(created);
+        }
+        if (!createdViews.isEmpty()) {
+            gamePane.getChildren().addAll(createdViews);
+            createdViews.clear();
+        }
+    }
+
+    // Gives the object a view, pooled if possible; returns the view if it is new and still
+    //   has to be added to the pane
+    private ImageView show(IslandObject object) {
+        Sprite sprite = object.getSprite();
+        if (sprite == null) return null;
+        ImageView view = hiddenViews.get(sprite).poll();
+        ImageView created = null;
+        if (view == null) {
+            view = created = new ImageView();
+        }
+        if (assets != null) {
+            setPicture(view, object);
+        } else {
+            view.setImage(null);
+            waitingForPictures.add(object);
+        }
+        object.renderHandle = view;
+        moved(object);
+        view.setVisible(true);
+        return created;
+    }
+
+    @Override
+    public void moved(IslandObject object) {
+        if (object.renderHandle instanceof ImageView view) {
+            view.setLayoutX(object.getX());
+            view.setLayoutY(object.getY());
+        }
+    }
+
+    @Override
+    public void moved(IslandObject object, double alpha) {
+        if (object.renderHandle instanceof ImageView view) {
+            view.setLayoutX(object.getRenderX(alpha));
+            view.setLayoutY(object.getRenderY(alpha));
+        }
+    }
+
+    @Override
+    public void removed(IslandObject object) {
+        if (object.renderHandle instanceof ImageView view) {
+            object.renderHandle = null;
+            view.setVisible(false);
+            ArrayDeque<ImageView> pool = hiddenViews.get(object.getSprite());
+            if (pool.size() < MAX_POOLED_VIEWS) pool.push(view);
+            else retiredViews.add(view);
+        }
+    }
+
+    // detach views the pools had no room for in one pass over the pane's children
+    @Override
+    public void flush() {
+        if (retiredViews.isEmpty()) return;
+        gamePane.getChildren().removeIf(retiredViews::contains);
+        retiredViews.clear();
+    }
+}
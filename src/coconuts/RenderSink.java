@@ -0,0 +1,53 @@
+package coconuts;
+
+import java.util.List;
+
+// Receives the visible side effects of the simulation. The game manager only talks to this
+//   interface, so it can run without any GUI toolkit (see RenderSink.NONE)
+public interface RenderSink {
+    /** Shows a newly registered object at its current position */
+    void added(IslandObject object);
+
+    /**
+     * Shows several newly registered objects at once (a spawn batch); sinks that can add
+     * them to the screen in one go should override this
+     */
+    default void addedAll(List<? extends IslandObject> objects) {
+        for (int i = 0, n = objects.size(); i < n; i++) {
+            added(objects.get(i));
+        }
+    }
+
+    /** Moves an object's picture to the object's current position */
+    void moved(IslandObject object);
+
+    /**
+     * Moves an object's picture to where it should appear in a frame that falls alpha of the
+     * way between the previous tick and the current one
+     */
+    default void moved(IslandObject object, double alpha) {
+        moved(object);
+    }
+
+    /** Hides an object that has left the game; may be deferred until flush() */
+    void removed(IslandObject object);
+
+    /** Called once per rendered frame so batched work can be applied */
+    default void flush() {
+    }
+
+    // Sink for headless runs: nothing is drawn
+    RenderSink NONE = new RenderSink() {
+        @Override
+        public void added(IslandObject object) {
+        }
+
+        @Override
+        public void moved(IslandObject object) {
+        }
+
+        @Override
+        public void removed(IslandObject object) {
+        }
+    };
+}
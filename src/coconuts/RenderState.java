@@ -0,0 +1,80 @@
+package coconuts;
+
+import java.util.Arrays;
+
+// What the screen needs from one tick of a game: the sprite, size and position (now and at the
+//   start of the tick) of every visible object, captured by the simulation thread so the UI
+//   thread can draw without touching live game objects. Once published by a
+//   SimulationWorker a state is not written again until the UI has handed it back
+public final class RenderState {
+    private static final int INITIAL_CAPACITY = 64;
+
+    int count = 0;
+    Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+    int[] width = new int[INITIAL_CAPACITY];
+    int[] x = new int[INITIAL_CAPACITY];
+    int[] y = new int[INITIAL_CAPACITY];
+    int[] previousX = new int[INITIAL_CAPACITY];
+    int[] previousY = new int[INITIAL_CAPACITY];
+    int tick = 0;
+    long capturedNanos = 0;
+    // set while published and not yet taken by the UI (see SimulationWorker)
+    boolean fresh = false;
+
+    // Empties the state for a new capture
+    void clear() {
+        count = 0;
+    }
+
+    void add(Sprite sprite, int width, int x, int y, int previousX, int previousY) {
+        if (count == sprites.length) grow();
+        sprites[count] = sprite;
+        this.width[count] = width;
+        this.x[count] = x;
+        this.y[count] = y;
+        this.previousX[count] = previousX;
+        this.previousY[count] = previousY;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Sprite getSprite(int i) {
+        return sprites[i];
+    }
+
+    public int getWidth(int i) {
+        return width[i];
+    }
+
+    // Where to draw object i when the frame falls alpha of the way through the tick
+    public double getRenderX(int i, double alpha) {
+        return previousX[i] + (x[i] - previousX[i]) * alpha;
+    }
+
+    public double getRenderY(int i, double alpha) {
+        return previousY[i] + (y[i] - previousY[i]) * alpha;
+    }
+
+    // The game's tick count when this was captured
+    public int getTick() {
+        return tick;
+    }
+
+    // System.nanoTime() when this was captured
+    public long getCapturedNanos() {
+        return capturedNanos;
+    }
+
+    private void grow() {
+        int capacity = sprites.length * 2;
+        sprites = Arrays.copyOf(sprites, capacity);
+        width = Arrays.copyOf(width, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+    }
+}
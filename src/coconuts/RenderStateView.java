@@ -0,0 +1,105 @@
+package coconuts;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Draws a game that is ticking on a SimulationWorker: on every pulse it takes the worker's
+//   latest RenderState and puts it on screen, interpolating by how long ago it was captured.
+//   With nodes, pictures of the same sprite are interchangeable, so the n-th coconut of the
+//   state simply goes to the n-th coconut view and spare views are hidden; nothing is added
+//   to or removed from the pane once it has enough views. With a canvas everything is drawn
+//   onto one Canvas instead
+public class RenderStateView extends AnimationTimer {
+    private final Pane gamePane;
+    private final Canvas canvas;
+    private final Map<Sprite, List<ImageView>> views = new EnumMap<>(Sprite.class);
+    private final int[] used = new int[Sprite.values().length];
+    private SpriteAssets assets;      // null until the sprite pictures have loaded
+    private SimulationWorker worker;
+
+    public RenderStateView(Pane gamePane, SimulationWorker worker, boolean useCanvas) {
+        this.gamePane = gamePane;
+        this.worker = worker;
+        for (Sprite sprite : Sprite.values()) {
+            views.put(sprite, new ArrayList<>());
+        }
+        if (useCanvas) {
+            canvas = new Canvas(gamePane.getPrefWidth(), gamePane.getPrefHeight());
+            canvas.setMouseTransparent(true);
+            gamePane.getChildren().add(0, canvas);
+        } else {
+            canvas = null;
+        }
+    }
+
+    // Follows a new game (after a reset); keeps the views
+    public void setWorker(SimulationWorker worker) {
+        this.worker = worker;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (assets == null) {
+            assets = SpriteAssets.getIfLoaded();
+            if (assets == null) return;
+        }
+        RenderState state = worker.latest();
+        double alpha = (System.nanoTime() - state.getCapturedNanos()) / (double) worker.getNanosPerTick();
+        alpha = Math.max(0, Math.min(1, alpha));
+        if (canvas != null) {
+            draw(state, alpha);
+        } else {
+            place(state, alpha);
+        }
+    }
+
+    private void place(RenderState state, double alpha) {
+        Arrays.fill(used, 0);
+        for (int i = 0, n = state.getCount(); i < n; i++) {
+            Sprite sprite = state.getSprite(i);
+            List<ImageView> pool = views.get(sprite);
+            int k = used[sprite.ordinal()]++;
+            ImageView view;
+            if (k < pool.size()) {
+                view = pool.get(k);
+            } else {
+                view = new ImageView();
+                // behind the scoreboard and overlays
+                gamePane.getChildren().add(0, view);
+                pool.add(view);
+            }
+            SpriteAssets.Frame frame = assets.frame(sprite, state.getWidth(i));
+            view.setImage(frame.image);
+            view.setViewport(frame.viewport);
+            view.setLayoutX(state.getRenderX(i, alpha));
+            view.setLayoutY(state.getRenderY(i, alpha));
+            if (!view.isVisible()) view.setVisible(true);
+        }
+        for (Sprite sprite : Sprite.values()) {
+            List<ImageView> pool = views.get(sprite);
+            for (int k = used[sprite.ordinal()]; k < pool.size(); k++) {
+                ImageView view = pool.get(k);
+                if (view.isVisible()) view.setVisible(false);
+            }
+        }
+    }
+
+    private void draw(RenderState state, double alpha) {
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int i = 0, n = state.getCount(); i < n; i++) {
+            SpriteAssets.Frame frame = assets.frame(state.getSprite(i), state.getWidth(i));
+            graphics.drawImage(frame.image, frame.getSourceX(), frame.getSourceY(), frame.width, frame.height,
+                    state.getRenderX(i, alpha), state.getRenderY(i, alpha), frame.width, frame.height);
+        }
+    }
+}
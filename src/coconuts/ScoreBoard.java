@@ -1,5 +1,6 @@
 package coconuts;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
@@ -8,17 +9,23 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.stage.Stage;
 
-import static coconuts.HitEventType.*;
-
+// Shows the game's counters. Events only update a GameStats; once per pulse, and only if an
+//   event arrived, each label whose value changed since it was last shown is rewritten, so
+//   frames without news (and counters without news) cost no strings and no setText. Attach
+//   on the FX thread (SYNC or BATCHED delivery); getStats() can be read from any thread
 public class ScoreBoard extends HBox implements Observer {
     private HBox hBox;
-    private int destroyedCount = 0;
-    private int beachCount = 0;
-    private boolean crabisAlive = true;
-    private int shotsFired = 0;
-    private int time = 0;
-    private int seconds = 0;
+    private final GameStats stats = new GameStats();
     private String gameState = "Ready";
+    private boolean dirty = false;
+
+    // values the labels show now; -1 forces the first paint
+    private long shownSeconds = -1;
+    private long shownDestroyed = -1;
+    private long shownBeach = -1;
+    private long shownShots = -1;
+    private int shownCrabAlive = -1;
+    private String shownState = null;
 
     private final Label time1 = new Label();
     private final Label destroyed1 = new Label();
@@ -36,37 +43,69 @@ public class ScoreBoard extends HBox implements Observer {
         HBox.setHgrow(spacer, Priority.ALWAYS);
         getChildren().addAll(time1,destroyed1,beachCount1,shots1,crab1);
         refresh();
+
+        // repaint on the next pulse after any change, however many events arrived
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (dirty) {
+                    dirty = false;
+                    refresh();
+                }
+            }
+        }.start();
     }
 
     public void update(HitEvent e) {
+        stats.update(e);
         switch (e.getType()){
-            case LASER_HIT ->destroyedCount++;
-            case BEACH_HIT -> beachCount++;
-            case CRAB_HIT -> {
-                crabisAlive = false;
-                gameState = "Game Over";
-            }
-            case SHOT_FIRED -> shotsFired++;
-            case TICK -> seconds++;
-            case GAME_STARTED -> gameState = "Running";
+            case CRAB_HIT, GAME_OVER -> gameState = "Game Over";
+            case GAME_STARTED, GAME_RESUMED -> gameState = "Running";
             case GAME_PAUSED -> gameState = "Paused";
-            case GAME_RESUMED -> gameState = "Running";
-            case GAME_OVER -> gameState = "Game Over";
+            default -> { }
         }
-        refresh();
+        dirty = true;
+    }
+
+    /** The counters on show, readable without locks from any thread */
+    public GameStats getStats() {
+        return stats;
     }
 
     private void refresh() {
-        time1.setText("Time: " + fmtTime(seconds));
-        shots1.setText("Shots: " + shotsFired);
-        destroyed1.setText("Destroyed: " + destroyedCount);
-        beachCount1.setText("Beach: " + beachCount);
-        crab1.setText("Crab: " + (crabisAlive ? "Alive" : "Dead"));
-        stateLbl.setText(gameState);
+        long seconds = stats.getSeconds();
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            time1.setText("Time: " + fmtTime(seconds));
+        }
+        long shots = stats.getShots();
+        if (shots != shownShots) {
+            shownShots = shots;
+            shots1.setText("Shots: " + shots);
+        }
+        long destroyed = stats.getDestroyed();
+        if (destroyed != shownDestroyed) {
+            shownDestroyed = destroyed;
+            destroyed1.setText("Destroyed: " + destroyed);
+        }
+        long beach = stats.getBeach();
+        if (beach != shownBeach) {
+            shownBeach = beach;
+            beachCount1.setText("Beach: " + beach);
+        }
+        int crabAlive = stats.getCrabsKilled() == 0 ? 1 : 0;
+        if (crabAlive != shownCrabAlive) {
+            shownCrabAlive = crabAlive;
+            crab1.setText(crabAlive == 1 ? "Crab: Alive" : "Crab: Dead");
+        }
+        if (!gameState.equals(shownState)) {
+            shownState = gameState;
+            stateLbl.setText(gameState);
+        }
     }
 
-    private static String fmtTime(int secs) {
-        int m = secs / 60, s = secs % 60;
+    private static String fmtTime(long secs) {
+        long m = secs / 60, s = secs % 60;
         return m + ":" + (s < 10 ? "0" : "") + s;
     }
 }
@@ -0,0 +1,127 @@
+package coconuts;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a game's ticks on a thread of its own, one per 1 / ticksPerSecond of GameClock time,
+//   so a slow tick never holds up input handling or painting. After each batch of ticks the
+//   positions are captured into a RenderState and published; the UI picks up the latest one
+//   with latest(). Three states rotate (the UI's, the worker's, and the newest published
+//   one), so neither side ever waits for the other or sees a state while it is being written
+// Only the game's thread-safe entry points may be used while the worker runs: its
+//   InputQueue, and observers attached with an executor (such as Platform::runLater)
+public class SimulationWorker {
+    // after a long stall don't try to catch up more than this many ticks at once
+    private static final int MAX_CATCH_UP_TICKS = 30;
+
+    private final OhCoconutsGameManager game;
+    private final GameClock clock;
+    private final long nanosPerTick;
+    private final AtomicReference<RenderState> published = new AtomicReference<>(new RenderState());
+    private RenderState back = new RenderState();       // worker's, being filled
+    private RenderState front = new RenderState();      // UI's, being drawn
+    private volatile boolean running = false;
+    private volatile boolean gameOver = false;
+    private Thread thread;
+
+    public SimulationWorker(OhCoconutsGameManager game) {
+        this(game, GameClock.system());
+    }
+
+    public SimulationWorker(OhCoconutsGameManager game, GameClock clock) {
+        this.game = game;
+        this.clock = clock;
+        this.nanosPerTick = 1_000_000_000L / game.getTicksPerSecond();
+        publish();
+    }
+
+    public OhCoconutsGameManager getGame() {
+        return game;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    // wall time between ticks at the clock's current time scale
+    public long getNanosPerTick() {
+        return clock.toRealNanos(nanosPerTick);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // true once the game has finished; safe to read from any thread
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public synchronized void start() {
+        if (running || gameOver) return;
+        running = true;
+        clock.start();
+        thread = new Thread(this::run, "coconuts-simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops ticking and waits for the thread to finish its current tick */
+    public synchronized void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        clock.stop();
+    }
+
+    /**
+     * The most recently published state; the same object until a newer one is published.
+     * UI thread only, and the result is valid until the next call
+     */
+    public RenderState latest() {
+        if (published.get().fresh) {
+            front.fresh = false;
+            front = published.getAndSet(front);
+        }
+        return front;
+    }
+
+    private void run() {
+        long lastClockNanos = clock.nanos();
+        long owedNanos = 0;
+        while (running) {
+            long clockNanos = clock.nanos();
+            owedNanos += clockNanos - lastClockNanos;
+            lastClockNanos = clockNanos;
+            if (owedNanos < nanosPerTick) {
+                LockSupport.parkNanos(Math.max(1, clock.toRealNanos(nanosPerTick - owedNanos)));
+                continue;
+            }
+            int ticks = 0;
+            while (owedNanos >= nanosPerTick && ticks < MAX_CATCH_UP_TICKS && !game.done()) {
+                game.tick();
+                owedNanos -= nanosPerTick;
+                ticks++;
+            }
+            if (ticks == MAX_CATCH_UP_TICKS) owedNanos = 0;     // too far behind; drop the backlog
+            publish();
+            if (game.done()) {
+                gameOver = true;
+                running = false;
+            }
+        }
+    }
+
+    private void publish() {
+        game.captureRenderState(back);
+        back.capturedNanos = System.nanoTime();
+        back.fresh = true;
+        back = published.getAndSet(back);
+    }
+}
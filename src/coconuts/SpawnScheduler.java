@@ -0,0 +1,165 @@
+package coconuts;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// How coconuts come down in a game: when, how many at once, and how fast. Any mix of
+//   - a drop every so many ticks (the classic game),
+//   - a steady rate that ramps from one value to another, optionally boosted in waves,
+//   - bursts of many coconuts in a single tick,
+//   - a random spread around the falling speed,
+// plus how long the round lasts. A scheduler only holds settings (times are in
+//   BASE_TICKS_PER_SECOND ticks or seconds, speeds in pixels per base tick), so one can be
+//   shared by any number of games; each game keeps its own progress
+public class SpawnScheduler {
+    private int dropEveryBaseTicks = 0;
+    private double startRate = 0, endRate = 0, rampSeconds = 0;     // coconuts per second
+    private double wavePeriodSeconds = 0, waveLengthSeconds = 0, waveMultiplier = 1;
+    private double burstPeriodSeconds = 0;
+    private int burstSize = 0;
+    private int speed = 5, speedVariance = 0;
+    private int durationBaseTicks = 100;
+    private boolean openEnded = false;
+
+    /** The original game: one coconut every 10 base ticks, at speed 5, for 100 base ticks */
+    public static SpawnScheduler classic() {
+        // the original game kept dropping after the time was up; the round ended with the crab
+        return new SpawnScheduler().dropEvery(10).speed(5, 0).duration(100).openEnded(true);
+    }
+
+    /** Storm mode: a rising flood of coconuts with surges and sudden bursts, for 90 seconds */
+    public static SpawnScheduler storm() {
+        return new SpawnScheduler()
+                .rate(2, 40, 60)
+                .waves(20, 5, 3)
+                .bursts(7, 50)
+                .speed(5, 3)
+                .duration(90 * OhCoconutsGameManager.BASE_TICKS_PER_SECOND);
+    }
+
+    // One coconut every baseTicks ticks, starting with the first tick; 0 turns it off
+    public SpawnScheduler dropEvery(int baseTicks) {
+        if (baseTicks < 0) throw new IllegalArgumentException("baseTicks must not be negative: " + baseTicks);
+        this.dropEveryBaseTicks = baseTicks;
+        return this;
+    }
+
+    // A steady stream going from startPerSecond to endPerSecond over rampSeconds, then level
+    public SpawnScheduler rate(double startPerSecond, double endPerSecond, double rampSeconds) {
+        if (startPerSecond < 0 || endPerSecond < 0) throw new IllegalArgumentException("rates must not be negative");
+        this.startRate = startPerSecond;
+        this.endRate = endPerSecond;
+        this.rampSeconds = Math.max(0, rampSeconds);
+        return this;
+    }
+
+    // For lengthSeconds out of every periodSeconds the stream's rate is multiplied
+    public SpawnScheduler waves(double periodSeconds, double lengthSeconds, double multiplier) {
+        this.wavePeriodSeconds = periodSeconds;
+        this.waveLengthSeconds = lengthSeconds;
+        this.waveMultiplier = multiplier;
+        return this;
+    }
+
+    // size coconuts at once every periodSeconds, the first after one period
+    public SpawnScheduler bursts(double periodSeconds, int size) {
+        this.burstPeriodSeconds = periodSeconds;
+        this.burstSize = Math.max(0, size);
+        return this;
+    }
+
+    // Each coconut falls at speed plus or minus up to variance (never slower than 1)
+    public SpawnScheduler speed(int speed, int variance) {
+        if (speed < 1 || variance < 0) throw new IllegalArgumentException("bad speed " + speed + " +/- " + variance);
+        this.speed = speed;
+        this.speedVariance = variance;
+        return this;
+    }
+
+    // How long the round lasts (the game's MAX_TIME)
+    public SpawnScheduler duration(int baseTicks) {
+        this.durationBaseTicks = baseTicks;
+        return this;
+    }
+
+    // When set, coconuts keep coming after the duration; otherwise spawning stops there
+    public SpawnScheduler openEnded(boolean openEnded) {
+        this.openEnded = openEnded;
+        return this;
+    }
+
+    public int getDropEveryBaseTicks() {
+        return dropEveryBaseTicks;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    public int getSpeedVariance() {
+        return speedVariance;
+    }
+
+    public int getDurationBaseTicks() {
+        return durationBaseTicks;
+    }
+
+    public boolean isOpenEnded() {
+        return openEnded;
+    }
+
+    // every setting, for input log headers
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(dropEveryBaseTicks);
+        out.writeDouble(startRate);
+        out.writeDouble(endRate);
+        out.writeDouble(rampSeconds);
+        out.writeDouble(wavePeriodSeconds);
+        out.writeDouble(waveLengthSeconds);
+        out.writeDouble(waveMultiplier);
+        out.writeDouble(burstPeriodSeconds);
+        out.writeInt(burstSize);
+        out.writeInt(speed);
+        out.writeInt(speedVariance);
+        out.writeInt(durationBaseTicks);
+        out.writeBoolean(openEnded);
+    }
+
+    static SpawnScheduler read(DataInput in) throws IOException {
+        SpawnScheduler s = new SpawnScheduler();
+        s.dropEveryBaseTicks = in.readInt();
+        s.startRate = in.readDouble();
+        s.endRate = in.readDouble();
+        s.rampSeconds = in.readDouble();
+        s.wavePeriodSeconds = in.readDouble();
+        s.waveLengthSeconds = in.readDouble();
+        s.waveMultiplier = in.readDouble();
+        s.burstPeriodSeconds = in.readDouble();
+        s.burstSize = in.readInt();
+        s.speed = in.readInt();
+        s.speedVariance = in.readInt();
+        s.durationBaseTicks = in.readInt();
+        s.openEnded = in.readBoolean();
+        return s;
+    }
+
+    /**
+     * The stream's rate at the given tick, in thousandths of a coconut per second; the game
+     * adds this up tick by tick and drops a coconut per 1000 * ticksPerSecond
+     */
+    long milliRateAt(int tick, int ticksPerSecond) {
+        if (startRate == 0 && endRate == 0) return 0;
+        double seconds = (double) tick / ticksPerSecond;
+        double rate = seconds >= rampSeconds ? endRate : startRate + (endRate - startRate) * seconds / rampSeconds;
+        if (wavePeriodSeconds > 0 && seconds % wavePeriodSeconds < waveLengthSeconds) rate *= waveMultiplier;
+        return Math.round(rate * 1000);
+    }
+
+    // Coconuts dropped all at once at the given tick (bursts)
+    int burstAt(int tick, int ticksPerSecond) {
+        if (burstSize == 0 || burstPeriodSeconds <= 0 || tick == 0) return 0;
+        long period = Math.max(1, Math.round(burstPeriodSeconds * ticksPerSecond));
+        return tick % period == 0 ? burstSize : 0;
+    }
+}
@@ -0,0 +1,24 @@
+package coconuts;
+
+// The picture an island object is drawn with. Render sinks decide how (or whether) to load it
+public enum Sprite {
+    COCONUT("images/coco-1.png", true),
+    CRAB("images/crab-1.png", true),
+    LASER("images/laser-1.png", false);   // stretched to the beam thickness, not scaled
+
+    private final String path;
+    private final boolean preserveRatio;
+
+    Sprite(String path, boolean preserveRatio) {
+        this.path = path;
+        this.preserveRatio = preserveRatio;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isPreserveRatio() {
+        return preserveRatio;
+    }
+}
@@ -0,0 +1,150 @@
+package coconuts;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Every sprite picture, loaded once, decoded straight to the sizes the game draws them at, and
+//   packed side by side into a single atlas image. Renderers draw a Frame (the atlas plus the
+//   region holding the wanted size) at 1:1, so nothing is rescaled per frame and every sprite
+//   shares one texture. preload() does the loading on a background thread at startup, so the
+//   first coconut doesn't stall the game while its picture is read from disk. Renderers never
+//   wait for it: until getIfLoaded() returns the assets they draw nothing, or empty views
+public final class SpriteAssets {
+    // One drawable picture: an image, or a region of one, at exactly width x height
+    public static final class Frame {
+        public final Image image;
+        public final Rectangle2D viewport;      // null when the whole image is the frame
+        public final int width;
+        public final int height;
+
+        Frame(Image image, Rectangle2D viewport, int width, int height) {
+            this.image = image;
+            this.viewport = viewport;
+            this.width = width;
+            this.height = height;
+        }
+
+        public double getSourceX() {
+            return viewport == null ? 0 : viewport.getMinX();
+        }
+
+        public double getSourceY() {
+            return viewport == null ? 0 : viewport.getMinY();
+        }
+    }
+
+    // widths the game draws each sprite at; these go in the atlas
+    private static final Map<Sprite, int[]> PRELOADED_WIDTHS = Map.of(
+            Sprite.COCONUT, new int[]{Coconut.WIDTH},
+            Sprite.CRAB, new int[]{Crab.WIDTH},
+            Sprite.LASER, new int[]{LaserBeam.WIDTH});
+
+    private static CompletableFuture<SpriteAssets> loading;
+
+    private final Map<Sprite, List<Frame>> frames = new EnumMap<>(Sprite.class);
+    private Image atlas;
+
+    /** Starts loading every sprite in the background; later calls return the same load */
+    public static synchronized CompletableFuture<SpriteAssets> preload() {
+        if (loading == null) {
+            loading = new CompletableFuture<>();
+            Thread loader = new Thread(() -> {
+                try {
+                    loading.complete(new SpriteAssets());
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                }
+            }, "coconuts-assets");
+            loader.setDaemon(true);
+            loader.start();
+        }
+        return loading;
+    }
+
+    /** The loaded assets, waiting for preload() to finish if it hasn't yet; not for the FX thread */
+    public static SpriteAssets get() {
+        return preload().join();
+    }
+
+    /** The assets if preload() has finished, otherwise null; never waits */
+    public static SpriteAssets getIfLoaded() {
+        return preload().getNow(null);
+    }
+
+    private SpriteAssets() {
+        List<Frame> scaled = new ArrayList<>();
+        List<Sprite> owners = new ArrayList<>();
+        for (Sprite sprite : Sprite.values()) {
+            frames.put(sprite, new ArrayList<>());
+            for (int width : PRELOADED_WIDTHS.getOrDefault(sprite, new int[0])) {
+                scaled.add(scale(sprite, width));
+                owners.add(sprite);
+            }
+        }
+        packAtlas(scaled, owners);
+    }
+
+    /** The atlas holding every preloaded frame; null if no picture could be loaded */
+    public Image getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * The sprite drawn at the given width: its region of the atlas when it was preloaded,
+     * otherwise a separately scaled image made (once) on first use
+     */
+    public synchronized Frame frame(Sprite sprite, int width) {
+        List<Frame> known = frames.get(sprite);
+        for (int i = 0, n = known.size(); i < n; i++) {
+            if (known.get(i).width == width) return known.get(i);
+        }
+        Frame made = scale(sprite, width);
+        known.add(made);
+        return made;
+    }
+
+    private static String url(Sprite sprite) {
+        return "file:" + sprite.getPath();
+    }
+
+    // the picture decoded once, straight to width: the height follows the picture's proportions,
+    //   or stays the picture's own for sprites that are stretched rather than scaled
+    private Frame scale(Sprite sprite, int width) {
+        Image image = new Image(url(sprite), width, 0, sprite.isPreserveRatio(), true);
+        return new Frame(image, null, width, (int) image.getHeight());
+    }
+
+    // lays the frames out left to right in one image and points each frame at its region
+    private void packAtlas(List<Frame> scaled, List<Sprite> owners) {
+        int atlasWidth = 0, atlasHeight = 0;
+        for (Frame frame : scaled) {
+            if (frame.image.isError()) continue;
+            atlasWidth += frame.width;
+            atlasHeight = Math.max(atlasHeight, frame.height);
+        }
+        WritableImage packed = atlasWidth > 0 && atlasHeight > 0 ? new WritableImage(atlasWidth, atlasHeight) : null;
+        int x = 0;
+        for (int i = 0; i < scaled.size(); i++) {
+            Frame frame = scaled.get(i);
+            PixelReader pixels = frame.image.getPixelReader();
+            if (packed == null || frame.image.isError() || pixels == null) {
+                frames.get(owners.get(i)).add(frame);     // drawn from its own image instead
+                continue;
+            }
+            int width = (int) frame.image.getWidth(), height = (int) frame.image.getHeight();
+            packed.getPixelWriter().setPixels(x, 0, width, height, pixels, 0, 0);
+            frames.get(owners.get(i)).add(new Frame(packed, new Rectangle2D(x, 0, frame.width, frame.height),
+                    frame.width, frame.height));
+            x += frame.width;
+        }
+        atlas = packed;
+    }
+}
@@ -0,0 +1,54 @@
+package coconuts;
+
+import java.util.SplittableRandom;
+
+// Headless games that do the same kind of work tick after tick, for the benchmarks and the
+//   allocation test
+final class SteadyStateGames {
+    // coconut tops sit on multiples of ROW_SPACING, laser tops halfway between, which is
+    //   further apart than IslandObject.HIT_EPS
+    private static final int ROW_SPACING = 20;
+    private static final int ROWS = 20;
+    // how far past the island's right edge the crab of a busy game sits: the widest a coconut
+    //   can reach is half a coconut short of the crab's middle, so none can land on it, but
+    //   its lasers still catch the coconuts that fall closest to the edge
+    private static final int CRAB_PAST_EDGE = 30;
+
+    private SteadyStateGames() {
+    }
+
+    /**
+     * Coconuts and lasers hovering in fixed rows (velocity 0). Advanced with advanceOneTick(),
+     * every tick does the same stepping and collision work and nothing gets hit or retired
+     */
+    static OhCoconutsGameManager hovering(int coconuts, int lasers, long seed) {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < coconuts; i++) {
+            Coconut c = new Coconut(game, random.nextInt(HeadlessSimulation.ISLAND_WIDTH));
+            c.setVelocityY(0);
+            c.moveBy(0, random.nextInt(ROWS) * ROW_SPACING);
+            game.registerObject(c);
+        }
+        for (int i = 0; i < lasers; i++) {
+            LaserBeam l = new LaserBeam(game, random.nextInt(ROWS) * ROW_SPACING + ROW_SPACING / 2,
+                    random.nextInt(HeadlessSimulation.ISLAND_WIDTH));
+            l.setVelocityY(0);
+            game.registerObject(l);
+        }
+        return game;
+    }
+
+    /**
+     * A game that never ends, among hovering coconuts: one coconut drops every tick and comes
+     * down on the beach, and the crab sits where none can land on it. Fire from the crab every
+     * tick and each tick also shoots, retires lasers off the top and now and then hits a coconut
+     */
+    static OhCoconutsGameManager busy(int hoveringCoconuts, long seed) {
+        OhCoconutsGameManager game = hovering(hoveringCoconuts, 0, seed);
+        game.setSpawnScheduler(new SpawnScheduler().dropEvery(1).speed(5, 3).openEnded(true));
+        game.crawlCrab(game.getWidth() + CRAB_PAST_EDGE - game.getCrab().getLeftX());
+        return game;
+    }
+}
@@ -0,0 +1,72 @@
+package coconuts;
+
+import java.util.Arrays;
+
+// One tick's contacts in swept collision mode, each with its time of impact (0 = start of the
+//   tick, 1 = end). The game gathers every contact first and then applies them earliest first,
+//   so what happens doesn't depend on which hitter happened to be checked first. Backed by
+//   arrays that only grow, so a steady-state tick allocates nothing
+final class SweptContacts {
+    private IslandObject[] hitters = new IslandObject[16];
+    private HittableIslandObject[] targets = new HittableIslandObject[16];
+    private double[] times = new double[16];
+    private int[] order = new int[16];
+    private int size = 0;
+
+    void add(IslandObject hitter, HittableIslandObject target, double time) {
+        if (size == hitters.length) {
+            int capacity = size * 2;
+            hitters = Arrays.copyOf(hitters, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            times = Arrays.copyOf(times, capacity);
+            order = Arrays.copyOf(order, capacity);
+        }
+        hitters[size] = hitter;
+        targets[size] = target;
+        times[size] = time;
+        order[size] = size;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // the i-th contact in time order, once sort() has run
+    IslandObject hitter(int i) {
+        return hitters[order[i]];
+    }
+
+    HittableIslandObject target(int i) {
+        return targets[order[i]];
+    }
+
+    /**
+     * Orders the contacts by time of impact, ties by hitter id and then target id. An insertion
+     * sort: a tick has few contacts, they arrive nearly sorted by hitter, and it needs no memory
+     */
+    void sort() {
+        for (int i = 1; i < size; i++) {
+            int moving = order[i];
+            int j = i - 1;
+            while (j >= 0 && comesBefore(moving, order[j])) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = moving;
+        }
+    }
+
+    private boolean comesBefore(int a, int b) {
+        if (times[a] != times[b]) return times[a] < times[b];
+        if (hitters[a].getId() != hitters[b].getId()) return hitters[a].getId() < hitters[b].getId();
+        return targets[a].getId() < targets[b].getId();
+    }
+
+    // drops the references too, so retired objects aren't kept alive until the next big tick
+    void clear() {
+        Arrays.fill(hitters, 0, size, null);
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,99 @@
+package coconuts;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+// Where a game's time goes: a latency histogram per phase of the tick, plus named gauges
+//   (live objects, scene nodes, ...) read on demand. Off by default; while off, timing a
+//   phase costs one field read and nothing is recorded
+// Usage on the hot path:
+//     long t = metrics.start();
+//     ...phase...
+//     t = metrics.record(Phase.STEP, t);      // returns now, so phases can be chained
+public class TickMetrics {
+    public enum Phase {
+        INPUT,      // wait from a queued key press to the tick that applies it
+        DROP,       // tryDropCoconut
+        STEP,       // moving every object
+        COLLIDE,    // broad-phase and hit tests, including SYNC observers called on each hit
+        REMOVE,     // retiring hit objects
+        DISPATCH,   // handing queued events to BATCHED and ASYNC observers
+        FRAME       // one display frame: the ticks it ran plus rendering (GUI only)
+    }
+
+    private final EnumMap<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<String, IntSupplier> gauges = new LinkedHashMap<>();
+    // toggled from the FX thread while the simulation thread may be ticking
+    private volatile boolean enabled = false;
+
+    public TickMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Start time for a phase, or 0 while disabled
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // Records the phase as running from start until now and returns now (0 while disabled, or
+    //   if metrics were switched on after start() was called)
+    public long record(Phase phase, long start) {
+        if (!enabled || start == 0) return 0;
+        long now = System.nanoTime();
+        histograms.get(phase).record(now - start);
+        return now;
+    }
+
+    public LatencyHistogram get(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    /** Adds (or replaces) a named value that is read whenever the gauges are looked at */
+    public void gauge(String name, IntSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public Map<String, IntSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // One line per phase that has samples, then the gauges; for logs and headless runs
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            if (h.getCount() == 0) continue;
+            out.append(String.format("%-8s n=%d p50=%s p99=%s max=%s%n", entry.getKey().name().toLowerCase(),
+                    h.getCount(), micros(h.getValueAtPercentile(50)), micros(h.getValueAtPercentile(99)),
+                    micros(h.getMax())));
+        }
+        for (Map.Entry<String, IntSupplier> entry : gauges.entrySet()) {
+            out.append(entry.getKey()).append(": ").append(entry.getValue().getAsInt()).append('\n');
+        }
+        return out.toString();
+    }
+
+    static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}
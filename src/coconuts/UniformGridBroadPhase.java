@@ -0,0 +1,85 @@
+package coconuts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Buckets hittable objects into fixed-size cells by their bounds so a query only looks at
+//   objects in the cells it overlaps. Coordinates outside the island are clamped into the
+//   edge cells, which keeps the lookup conservative for objects that drift off screen.
+//   Objects are indexed by the area they swept during the last tick (previous and current
+//   position), so candidates also cover swept collision tests
+public class UniformGridBroadPhase implements BroadPhase {
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private final int columns, rows;
+    private final List<HittableIslandObject>[] cells;
+    private int stamp = 0;
+
+    public UniformGridBroadPhase(int width, int height) {
+        this(width, height, DEFAULT_CELL_SIZE);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public UniformGridBroadPhase(int width, int height, int cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        this.cellSize = cellSize;
+        // one extra row/column so objects sitting on the far edge still get their own cell
+        this.columns = Math.max(1, width / cellSize + 1);
+        this.rows = Math.max(1, height / cellSize + 1);
+        this.cells = new List[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<? extends HittableIslandObject> hittables) {
+        for (List<HittableIslandObject> cell : cells) {
+            cell.clear();
+        }
+        for (HittableIslandObject h : hittables) {
+            int c0 = column(h.sweptLeftX()), c1 = column(h.sweptRightX());
+            int r0 = row(h.sweptTopY()), r1 = row(h.sweptBottomY());
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    cells[r * columns + c].add(h);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void candidatesFor(IslandObject obj, List<HittableIslandObject> out) {
+        // isTouching compares a top or bottom edge with a tolerance of HIT_EPS, so widen the
+        //   vertical search band by that much
+        int c0 = column(obj.sweptLeftX()), c1 = column(obj.sweptRightX());
+        int r0 = row(obj.sweptTopY() - IslandObject.HIT_EPS), r1 = row(obj.sweptBottomY() + IslandObject.HIT_EPS);
+        int queryStamp = ++stamp;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                List<HittableIslandObject> cell = cells[r * columns + c];
+                for (int i = 0, n = cell.size(); i < n; i++) {
+                    HittableIslandObject h = cell.get(i);
+                    if (h.queryStamp != queryStamp) {
+                        h.queryStamp = queryStamp;
+                        out.add(h);
+                    }
+                }
+            }
+        }
+    }
+
+    private int column(int x) {
+        return clamp(Math.floorDiv(x, cellSize), columns);
+    }
+
+    private int row(int y) {
+        return clamp(Math.floorDiv(y, cellSize), rows);
+    }
+
+    private static int clamp(int index, int limit) {
+        return index < 0 ? 0 : Math.min(index, limit - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The track-nearest bot is the load test's default player, so it should play like one: over the
+//   same seeded games it has to survive longer than a bot that mashes keys
+class BotStrategyTest {
+    private static final int GAMES = 50;
+    private static final long MAX_TICKS_PER_GAME = 20_000;
+
+    @Test
+    void trackNearestOutlivesRandom() {
+        for (boolean storm : new boolean[] {false, true}) {
+            long random = ticksPlayed("random", storm);
+            long trackNearest = ticksPlayed("track-nearest", storm);
+            assertTrue(trackNearest > random, (storm ? "storm" : "classic") + ": track-nearest played "
+                    + trackNearest + " ticks, random " + random);
+        }
+    }
+
+    // total ticks of the same seeded games with the given bot, collision as the game picks it
+    private static long ticksPlayed(String strategy, boolean storm) {
+        LoadTest test = new LoadTest(strategy, 1, MAX_TICKS_PER_GAME, storm, storm);
+        test.play(0, GAMES);
+        return test.getTicks();
+    }
+}
@@ -0,0 +1,128 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The grid broad-phase is only an optimization: for any layout of objects it must find exactly
+//   the same touching objects as checking every pair. Candidates come back in any order; the
+//   game sorts the touching ones by id, and so does this test. A seeded game played with
+//   either must then produce the same hit events in the same order
+class BroadPhaseEquivalenceTest {
+    private static final int OBJECTS = 300;
+    private static final int SEEDS = 20;
+    private static final int TICKS = 3000;
+
+    @Test
+    void gridMatchesBruteForceOnRandomLayouts() {
+        int touching = 0;
+        for (long seed = 0; seed < SEEDS; seed++) {
+            List<Box> boxes = layout(new SplittableRandom(seed));
+            UniformGridBroadPhase grid = new UniformGridBroadPhase(HeadlessSimulation.ISLAND_WIDTH,
+                    HeadlessSimulation.SKY_HEIGHT);
+            BruteForceBroadPhase bruteForce = new BruteForceBroadPhase();
+            grid.rebuild(boxes);
+            bruteForce.rebuild(boxes);
+            for (Box box : boxes) {
+                List<HittableIslandObject> expected = touching(bruteForce, box);
+                assertEquals(expected, touching(grid, box), "seed " + seed + ", object " + box.getId());
+                touching += expected.size();
+            }
+        }
+        assertTrue(touching > 0, "no layout had touching objects");
+    }
+
+    @Test
+    void gridMatchesBruteForceInGames() {
+        assertSameEvents(SpawnScheduler::classic, false);
+    }
+
+    @Test
+    void gridMatchesBruteForceInGamesWithSweptCollision() {
+        assertSameEvents(SpawnScheduler::classic, true);
+    }
+
+    @Test
+    void gridMatchesBruteForceInStorms() {
+        assertSameEvents(SpawnScheduler::storm, false);
+    }
+
+    @Test
+    void gridMatchesBruteForceInStormsWithSweptCollision() {
+        assertSameEvents(SpawnScheduler::storm, true);
+    }
+
+    private static void assertSameEvents(Supplier<SpawnScheduler> spawner, boolean swept) {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            List<Long> grid = play(seed, spawner.get(), swept, null);
+            List<Long> bruteForce = play(seed, spawner.get(), swept, new BruteForceBroadPhase());
+            assertFalse(grid.isEmpty(), "seed " + seed + " produced no events");
+            assertEquals(bruteForce, grid, "hit events differ for seed " + seed);
+        }
+    }
+
+    // every event of a game with a random bot, packed; null keeps the game's own grid
+    private static List<Long> play(long seed, SpawnScheduler spawner, boolean swept, BroadPhase broadPhase) {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, seed);
+        game.setSpawnScheduler(spawner);
+        game.setContinuousCollision(swept);
+        if (broadPhase != null) game.setBroadPhase(broadPhase);
+        List<Long> events = new ArrayList<>();
+        game.attach(event -> events.add(event.pack()));
+        BotStrategy bot = BotStrategy.random();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < TICKS && !game.done(); i++) {
+            if (game.getCrab() != null) bot.play(game, random);
+            game.tick();
+        }
+        return events;
+    }
+
+    // coconut- and laser-sized objects, some of them off the island to exercise the edge cells
+    private static List<Box> layout(SplittableRandom random) {
+        List<Box> boxes = new ArrayList<>();
+        for (int id = 0; id < OBJECTS; id++) {
+            int width = random.nextBoolean() ? 50 : 6;
+            int x = random.nextInt(-60, HeadlessSimulation.ISLAND_WIDTH + 60);
+            int y = random.nextInt(-60, HeadlessSimulation.SKY_HEIGHT + 60);
+            boxes.add(new Box(id, x, y, width, random.nextBoolean()));
+        }
+        return boxes;
+    }
+
+    private static List<HittableIslandObject> touching(BroadPhase broadPhase, Box box) {
+        List<HittableIslandObject> candidates = new ArrayList<>();
+        broadPhase.candidatesFor(box, candidates);
+        candidates.removeIf(other -> other == box || !box.isTouching(other));
+        candidates.sort(Comparator.comparingInt(IslandObject::getId));
+        return candidates;
+    }
+
+    private static final class Box extends HittableIslandObject {
+        private final boolean falling;
+
+        Box(int id, int x, int y, int width, boolean falling) {
+            super(null, x, y, width, null);
+            this.id = id;
+            this.falling = falling;
+        }
+
+        @Override
+        public boolean isFalling() {
+            return falling;
+        }
+
+        @Override
+        public void step() {
+        }
+    }
+}
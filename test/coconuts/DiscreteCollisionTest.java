@@ -0,0 +1,60 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A hit uses up the laser or the crab that made it, so in one tick each of them hits at most
+//   one coconut, however many it touches
+class DiscreteCollisionTest {
+    @Test
+    void laserDestroysOneOfTwoCoconutsItTouches() {
+        OhCoconutsGameManager game = newGame();
+        List<HitEventType> events = record(game);
+        int x = HeadlessSimulation.ISLAND_WIDTH / 4;
+        Coconut first = hovering(game, x, 100);
+        hovering(game, x + 10, 100);
+        LaserBeam laser = new LaserBeam(game, first.getTopY(), x + 20);
+        laser.setVelocityY(0);
+        game.registerObject(laser);
+        game.tick();
+
+        assertEquals(List.of(HitEventType.LASER_HIT), events);
+    }
+
+    @Test
+    void crabIsHitOnceByTwoCoconutsLandingTogether() {
+        OhCoconutsGameManager game = newGame();
+        List<HitEventType> events = record(game);
+        Crab crab = game.getCrab();
+        hovering(game, crab.getLeftX(), crab.getTopY());
+        hovering(game, crab.getLeftX() + 10, crab.getTopY());
+        game.tick();
+
+        // the other coconut carries on down to the beach
+        assertEquals(List.of(HitEventType.CRAB_HIT, HitEventType.GAME_OVER, HitEventType.BEACH_HIT), events);
+    }
+
+    // the game's own first coconut starts at the top of the sky, far from the ones placed here
+    private static OhCoconutsGameManager newGame() {
+        return new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, 1);
+    }
+
+    private static List<HitEventType> record(OhCoconutsGameManager game) {
+        List<HitEventType> events = new ArrayList<>();
+        game.attach(event -> events.add(event.getType()));
+        return events;
+    }
+
+    private static Coconut hovering(OhCoconutsGameManager game, int x, int topY) {
+        Coconut coconut = new Coconut(game, x);
+        coconut.setVelocityY(0);
+        coconut.moveBy(0, topY);
+        game.registerObject(coconut);
+        return coconut;
+    }
+}
@@ -0,0 +1,117 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The journal keeps every event across segment rollovers and across sessions, and leaves no
+//   spare segment behind when closed. However late events reach it, it records the tick they
+//   happened at and where their objects were then
+class EventJournalTest {
+    private static final int RECORDS_PER_SEGMENT = 8;
+    private static final int MAX_TICKS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopeningAppendsAfterTheLastSession() throws IOException {
+        List<Long> written = new ArrayList<>();
+        written.addAll(playJournaled(1));
+        written.addAll(playJournaled(2));
+
+        List<Long> read = new ArrayList<>();
+        long records = new JournalReader(directory).scan((tick, type, hitterId, targetId, hx, hy, tx, ty) ->
+                read.add(HitEvent.pack(type, hitterId, targetId)));
+
+        assertEquals(written.size(), records);
+        assertEquals(written, read);
+    }
+
+    @Test
+    void closeDeletesTheSpareSegment() throws IOException {
+        int events = playJournaled(1).size();
+        int used = (events + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT;
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(used, files.count());
+        }
+    }
+
+    @Test
+    void batchedJournalRecordsEventsAsTheyHappened() throws IOException {
+        assertJournalMatchesSyncObserver(null);
+    }
+
+    @Test
+    void asyncJournalRecordsEventsAsTheyHappened() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertJournalMatchesSyncObserver(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // plays a game with a random bot, journaled BATCHED (no executor) or ASYNC, and compares the
+    //   journal with what a SYNC observer saw of the live game as each event was raised
+    private void assertJournalMatchesSyncObserver(ExecutorService executor) throws IOException {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, 3);
+        List<List<Integer>> seen = new ArrayList<>();
+        game.attach(event -> seen.add(record(game.getTick(), event.getType(), event.getHitter(), event.getTarget())));
+        try (EventJournal journal = new EventJournal(directory, RECORDS_PER_SEGMENT)) {
+            if (executor == null) game.attach(journal, Delivery.BATCHED);
+            else game.attach(journal, executor);
+            BotStrategy bot = BotStrategy.random();
+            SplittableRandom random = new SplittableRandom(3);
+            for (int i = 0; i < MAX_TICKS && !game.done(); i++) {
+                if (game.getCrab() != null) bot.play(game, random);
+                game.tick();
+            }
+            game.flushEvents();
+            if (executor != null) {
+                executor.shutdown();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+
+        List<List<Integer>> journaled = new ArrayList<>();
+        new JournalReader(directory).scan((tick, type, hitterId, targetId, hx, hy, tx, ty) ->
+                journaled.add(List.of(tick, type.ordinal(), hitterId, targetId, hx, hy, tx, ty)));
+        assertEquals(seen, journaled);
+    }
+
+    private static List<Integer> record(int tick, HitEventType type, IslandObject hitter, IslandObject target) {
+        return List.of(tick, type.ordinal(),
+                hitter == null ? -1 : hitter.getId(), target == null ? -1 : target.getId(),
+                hitter == null ? 0 : hitter.getLeftX(), hitter == null ? 0 : hitter.getTopY(),
+                target == null ? 0 : target.getLeftX(), target == null ? 0 : target.getTopY());
+    }
+
+    // plays a whole game with a journal attached; returns its events, packed
+    private List<Long> playJournaled(long seed) throws IOException {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, seed);
+        List<Long> events = new ArrayList<>();
+        game.attach(event -> events.add(event.pack()));
+        try (EventJournal journal = new EventJournal(directory, RECORDS_PER_SEGMENT)) {
+            game.attach(journal);
+            new HeadlessSimulation(game).runUntilDone(MAX_TICKS);
+        }
+        return events;
+    }
+}
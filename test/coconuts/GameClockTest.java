@@ -0,0 +1,54 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A paced game runs one tick per 1 / ticksPerSecond of game time, and the clock's time scale
+//   decides how much game time a second of wall time is worth
+class GameClockTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final int TICKS_PER_SECOND = OhCoconutsGameManager.BASE_TICKS_PER_SECOND;
+
+    @Test
+    void scaleZeroStopsTicks() {
+        HeadlessSimulation simulation = pacedSimulation(0);
+        simulation.getClock().advance(SECOND);
+        assertEquals(0, simulation.catchUp());
+    }
+
+    @Test
+    void scaleTwoDoublesTicks() {
+        HeadlessSimulation simulation = pacedSimulation(1);
+        simulation.getClock().advance(SECOND);
+        assertEquals(TICKS_PER_SECOND, simulation.catchUp());
+
+        simulation.getClock().setTimeScale(2);
+        simulation.getClock().advance(SECOND);
+        assertEquals(2 * TICKS_PER_SECOND, simulation.catchUp());
+    }
+
+    @Test
+    void frozenGameGoesOnWhenTheScaleIsRaised() {
+        HeadlessSimulation simulation = pacedSimulation(0);
+        simulation.getClock().advance(SECOND);
+        simulation.catchUp();
+
+        simulation.getClock().setTimeScale(1);
+        simulation.getClock().advance(SECOND);
+        assertEquals(TICKS_PER_SECOND, simulation.catchUp());
+        assertEquals(TICKS_PER_SECOND, simulation.getGame().getTick());
+    }
+
+    // a running manual clock at the given scale, pacing a game that lasts well past the test
+    private static HeadlessSimulation pacedSimulation(double timeScale) {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, TICKS_PER_SECOND, 1);
+        GameClock clock = GameClock.manual();
+        clock.setTimeScale(timeScale);
+        clock.start();
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        simulation.setClock(clock);
+        return simulation;
+    }
+}
@@ -0,0 +1,74 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// A snapshot holds everything that decides how a game goes on: a game rolled back to it, or a
+//   new game built from it, plays the following ticks exactly like the game it was taken from
+class GameSnapshotTest {
+    // snapshots are taken before the first coconut can have come down on the crab
+    private static final int TICKS_BEFORE = 90;
+    private static final int TICKS_AFTER = 3000;
+    private static final int SEEDS = 10;
+
+    @Test
+    void restoredGamePlaysOnTheSame() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            OhCoconutsGameManager game = newGame(seed);
+            play(game, TICKS_BEFORE, null);
+            GameSnapshot snapshot = game.snapshot();
+            List<Long> first = new ArrayList<>();
+            play(game, TICKS_AFTER, first);
+
+            game.restore(snapshot);
+            List<Long> again = new ArrayList<>();
+            play(game, TICKS_AFTER, again);
+
+            assertFalse(first.isEmpty(), "seed " + seed + " produced no events");
+            assertEquals(first, again, "restored game differs for seed " + seed);
+        }
+    }
+
+    @Test
+    void forkedGamePlaysOnTheSame() throws IOException {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            OhCoconutsGameManager game = newGame(seed);
+            play(game, TICKS_BEFORE, null);
+            // through bytes, as a snapshot saved to a file would be
+            OhCoconutsGameManager fork = GameSnapshot.fromByteArray(game.snapshot().toByteArray()).newGame();
+
+            List<Long> original = new ArrayList<>();
+            play(game, TICKS_AFTER, original);
+            List<Long> forked = new ArrayList<>();
+            play(fork, TICKS_AFTER, forked);
+
+            assertFalse(original.isEmpty(), "seed " + seed + " produced no events");
+            assertEquals(original, forked, "forked game differs for seed " + seed);
+        }
+    }
+
+    private static OhCoconutsGameManager newGame(long seed) {
+        return new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT, HeadlessSimulation.ISLAND_WIDTH,
+                RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, seed);
+    }
+
+    // ticks the game with a random bot, collecting its events (packed) unless events is null
+    private static void play(OhCoconutsGameManager game, int ticks, List<Long> events) {
+        Observer observer = event -> events.add(event.pack());
+        if (events != null) game.attach(observer);
+        BotStrategy bot = BotStrategy.random();
+        SplittableRandom random = new SplittableRandom(0);
+        for (int i = 0; i < ticks && !game.done(); i++) {
+            if (game.getCrab() != null) bot.play(game, random);
+            game.tick();
+        }
+        if (events != null) game.detach(observer);
+    }
+}
@@ -0,0 +1,67 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// A recorded session, written out and read back, replays into a game built from the log alone
+//   with exactly the hit events of the original
+class InputLogTest {
+    private static final int TICKS = 3000;
+    private static final int SEEDS = 10;
+
+    @Test
+    void replayMatchesClassicGames() throws IOException {
+        assertReplaysMatch(SpawnScheduler::classic, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, false);
+    }
+
+    @Test
+    void replayMatchesSweptGamesAtAnotherRate() throws IOException {
+        assertReplaysMatch(SpawnScheduler::classic, 120, true);
+    }
+
+    @Test
+    void replayMatchesStorms() throws IOException {
+        assertReplaysMatch(SpawnScheduler::storm, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, true);
+    }
+
+    private static void assertReplaysMatch(Supplier<SpawnScheduler> spawner, int ticksPerSecond, boolean swept)
+            throws IOException {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            OhCoconutsGameManager original = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                    HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, ticksPerSecond, seed);
+            original.setSpawnScheduler(spawner.get());
+            original.setContinuousCollision(swept);
+            List<Long> recorded = record(original);
+            InputLog log = original.startRecording();
+            BotStrategy bot = BotStrategy.random();
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < TICKS && !original.done(); i++) {
+                if (original.getCrab() != null) bot.play(original, random);
+                original.tick();
+            }
+            log.finish(original.getTick());
+
+            InputLog read = InputLog.read(new ByteArrayInputStream(log.toByteArray()));
+            OhCoconutsGameManager replayed = read.newGame();
+            List<Long> replayedEvents = record(replayed);
+            assertEquals(original.getTick(), read.replay(replayed), "seed " + seed + " stopped elsewhere");
+            assertFalse(recorded.isEmpty(), "seed " + seed + " produced no events");
+            assertEquals(recorded, replayedEvents, "replay differs for seed " + seed);
+        }
+    }
+
+    private static List<Long> record(OhCoconutsGameManager game) {
+        List<Long> events = new ArrayList<>();
+        game.attach(event -> events.add(event.pack()));
+        return events;
+    }
+}
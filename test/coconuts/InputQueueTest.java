@@ -0,0 +1,64 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Draining keeps the order keys came in and takes one shot per tick; later shots wait their
+//   turn rather than being merged away
+class InputQueueTest {
+    @Test
+    void drainKeepsCrawlsOnTheirSideOfTheShot() {
+        InputQueue queue = new InputQueue();
+        queue.crawl(10);
+        queue.crawl(10);
+        queue.fire();
+        queue.crawl(-10);
+
+        assertTrue(queue.drain());
+        assertEquals(20, queue.getCrawlBeforeShot());
+        assertTrue(queue.isFire());
+        assertEquals(-10, queue.getCrawlAfterShot());
+        assertFalse(queue.drain());
+    }
+
+    @Test
+    void eachShotGetsATickOfItsOwn() {
+        InputQueue queue = new InputQueue();
+        queue.fire();
+        queue.crawl(10);
+        queue.fire();
+        queue.fire();
+
+        assertTrue(queue.drain());
+        assertEquals(0, queue.getCrawlBeforeShot());
+        assertTrue(queue.isFire());
+        assertEquals(10, queue.getCrawlAfterShot());
+        for (int shot = 2; shot <= 3; shot++) {
+            assertTrue(queue.drain(), "shot " + shot);
+            assertTrue(queue.isFire());
+            assertEquals(0, queue.getCrawlBeforeShot() + queue.getCrawlAfterShot());
+        }
+        assertFalse(queue.drain());
+    }
+
+    @Test
+    void gameFiresFromWhereTheCrabWasWhenTheShotWasQueued() {
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, OhCoconutsGameManager.BASE_TICKS_PER_SECOND, 1);
+        int[] laserX = {-1};
+        game.attach(event -> {
+            if (event.getType() == HitEventType.SHOT_FIRED) laserX[0] = event.getTargetX();
+        });
+        int crabX = game.getCrab().getLeftX();
+        game.getInputQueue().crawl(10);
+        game.getInputQueue().fire();
+        game.getInputQueue().crawl(20);
+        game.tick();
+
+        assertEquals(crabX + 10, laserX[0]);
+        assertEquals(crabX + 30, game.getCrab().getLeftX());
+    }
+}
@@ -0,0 +1,35 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Swept collision applies a tick's contacts in the order they happened, not in the order the
+//   hitters happen to be checked
+class SweptCollisionTest {
+    private static final int SLOW_TICKS_PER_SECOND = 5;
+
+    @Test
+    void laserStopsCoconutBeforeItReachesTheCrab() {
+        // at 5 ticks per second a coconut falls 30 px a tick: this one comes down on the crab
+        //   during the tick, but the laser fired at it meets it earlier. The game's own first
+        //   coconut starts at the top of the sky, far from both
+        OhCoconutsGameManager game = new OhCoconutsGameManager(HeadlessSimulation.SKY_HEIGHT,
+                HeadlessSimulation.ISLAND_WIDTH, RenderSink.NONE, SLOW_TICKS_PER_SECOND);
+        game.setContinuousCollision(true);
+        List<HitEventType> events = new ArrayList<>();
+        game.attach(event -> events.add(event.getType()));
+
+        Crab crab = game.getCrab();
+        Coconut coconut = new Coconut(game, 0);
+        coconut.moveBy(crab.getCenterX() - coconut.getCenterX(), crab.getTopY() - coconut.getBottomY() + 20);
+        game.registerObject(coconut);
+        game.fireLaserFromCrab();
+        game.tick();
+
+        assertEquals(List.of(HitEventType.SHOT_FIRED, HitEventType.LASER_HIT), events);
+    }
+}
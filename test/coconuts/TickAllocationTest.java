@@ -0,0 +1,64 @@
+package coconuts;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// The steady-state tick must not allocate: once the game's lists, pools and buffers have grown
+//   to size, spawning, stepping, collision, hits, removal and event delivery reuse them.
+//   Measured with the JVM's per-thread allocation counter over many warmed-up ticks of a game
+//   that keeps shooting, hitting and retiring objects
+class TickAllocationTest {
+    private static final int WARM_UP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 10_000;
+    private static final int ROUNDS = 3;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void steadyStateTickAllocatesNothing() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "no per-thread allocation counter");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        OhCoconutsGameManager game = SteadyStateGames.busy(2000, 1);
+        GameStats stats = new GameStats();
+        game.attach(stats, Delivery.SYNC);
+        game.attach(new GameStats(), Delivery.BATCHED);
+        play(game, WARM_UP_TICKS);
+        assertFalse(game.done(), "game over during the warm-up");
+        long destroyed = stats.getDestroyed(), landed = stats.getBeach(), shots = stats.getShots();
+        long retired = game.getRetiredObjectCount();
+
+        // best of a few rounds, so a one-off allocation by the JVM itself doesn't fail the test
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = allocatedBytes();
+            play(game, MEASURED_TICKS);
+            fewest = Math.min(fewest, allocatedBytes() - before);
+        }
+        assertEquals(0, fewest, "bytes allocated by " + MEASURED_TICKS + " ticks");
+
+        // and the measured ticks did the work that could allocate
+        assertTrue(stats.getDestroyed() > destroyed, "no coconut was shot down");
+        assertTrue(stats.getBeach() > landed, "no coconut landed");
+        assertTrue(stats.getShots() > shots, "no shot was fired");
+        assertTrue(game.getRetiredObjectCount() > retired, "nothing was retired");
+    }
+
+    private static void play(OhCoconutsGameManager game, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            game.fireLaserFromCrab();
+            game.tick();
+        }
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}